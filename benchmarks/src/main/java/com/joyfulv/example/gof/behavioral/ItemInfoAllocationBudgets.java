@@ -0,0 +1,52 @@
+/*******************************************
+ * Name     : ItemInfoAllocationBudgets
+ * Function : Allocation budgets of the item-info request path
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.behavioral;
+
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.Request;
+import com.joyfulv.example.gof.bench.AllocationBudget;
+
+/**
+ * CoRAWSItemInfoReqSvr.handleRequest per item category with a warm
+ * item cache; the budget includes the Request and the reply String
+ * @author Victor.Chan
+ */
+public class ItemInfoAllocationBudgets {
+
+	public static void measure(AllocationBudget budget) throws Exception {
+		final CoRAWSItemInfoReqSvr infoReqSvr = new CoRAWSItemInfoReqSvr();
+		budget.measure("CoRAWSItemInfoReqSvr.handleRequest book", 160,
+				new AllocationBudget.Operation() {
+					@Override
+					public Object run() throws Exception {
+						return infoReqSvr.handleRequest(new Request("1234BK"));
+					}
+				});
+		budget.measure("CoRAWSItemInfoReqSvr.handleRequest movie", 176,
+				new AllocationBudget.Operation() {
+					@Override
+					public Object run() throws Exception {
+						return infoReqSvr.handleRequest(new Request("5678MV"));
+					}
+				});
+		budget.measure("CoRAWSItemInfoReqSvr.handleRequest unknown", 144,
+				new AllocationBudget.Operation() {
+					@Override
+					public Object run() throws Exception {
+						return infoReqSvr.handleRequest(new Request("013579"));
+					}
+				});
+	}
+}
@@ -0,0 +1,72 @@
+/*******************************************
+ * Name     : ItemInfoReqSvrBenchmark
+ * Function : JMH benchmark of CoRAWSItemInfoReqSvr.handleRequest
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.behavioral;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.Request;
+
+/**
+ * Synchronous handleRequest for each item category, the item cache
+ * is warm after the first call
+ * @author Victor.Chan
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemInfoReqSvrBenchmark {
+
+	/**
+	 * book, movie, unknown
+	 */
+	@Param({ "1234BK", "5678MV", "013579" })
+	public String ASIN;
+
+	private CoRAWSItemInfoReqSvr infoReqSvr;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		infoReqSvr = new CoRAWSItemInfoReqSvr();
+	}
+
+	@Benchmark
+	public String handleRequest() {
+		return infoReqSvr.handleRequest(new Request(ASIN));
+	}
+
+	@Benchmark
+	@Threads(4)
+	public String handleRequestThreads4() {
+		return handleRequest();
+	}
+}
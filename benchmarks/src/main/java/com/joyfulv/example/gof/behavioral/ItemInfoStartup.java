@@ -0,0 +1,35 @@
+/*******************************************
+ * Name     : ItemInfoStartup
+ * Function : First request of a fresh CoRAWSItemInfoReqSvr
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.behavioral;
+
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.Request;
+
+/**
+ * Request milestone of StartupProbe, here for access to Request
+ * @author Victor.Chan
+ */
+public final class ItemInfoStartup {
+
+	private ItemInfoStartup() {}
+
+	/**
+	 * @param ASIN
+	 * @return reply of a newly created server
+	 */
+	public static String firstRequest(String ASIN) {
+		return new CoRAWSItemInfoReqSvr().handleRequest(new Request(ASIN));
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************
+ * Name     : AllocationBudget
+ * Function : Bytes allocated per operation against a budget
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the bytes a hot path allocates per operation with
+ * com.sun.management.ThreadMXBean.getThreadAllocatedBytes of the
+ * calling thread. Each operation is warmed up first so that the JIT
+ * (and its escape analysis) has settled; the lowest of a few measured
+ * rounds is taken to filter out one-off allocations such as a
+ * resizing cache.
+ * @author Victor.Chan
+ */
+public class AllocationBudget {
+
+	/**
+	 * The measured hot path, the returned value is kept alive so the
+	 * JIT cannot drop the work
+	 */
+	public interface Operation {
+		Object run() throws Exception;
+	}
+
+	private static final int WARMUP_OPS  = 200000;
+	private static final int MEASURE_OPS = 100000;
+	private static final int ROUNDS      = 5;
+
+	public static volatile Object sink;
+
+	private final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+	private final List<Result> results = new ArrayList<Result>();
+
+	/**
+	 * Measure an operation and record it against its budget
+	 * @param name
+	 * @param budgetBytesPerOp
+	 * @param operation
+	 * @return the measurement
+	 */
+	public Result measure(String name, long budgetBytesPerOp, Operation operation)
+									throws Exception {
+		long tid = Thread.currentThread().getId();
+		for (int i = 0; i < WARMUP_OPS; i++) { sink = operation.run(); }
+
+		double best = Double.MAX_VALUE;
+		for (int r = 0; r < ROUNDS; r++) {
+			long before = threads.getThreadAllocatedBytes(tid);
+			for (int i = 0; i < MEASURE_OPS; i++) { sink = operation.run(); }
+			long after = threads.getThreadAllocatedBytes(tid);
+			best = Math.min(best, (after - before) / (double)MEASURE_OPS);
+		}
+		Result result = new Result(name, budgetBytesPerOp, best);
+		results.add(result);
+		return result;
+	}
+
+	public List<Result> getResults() { return results; }
+
+	/**
+	 * @return the measurements over budget
+	 */
+	public List<Result> getBreaches() {
+		List<Result> breaches = new ArrayList<Result>();
+		for (Result result : results) {
+			if (!result.isWithinBudget()) { breaches.add(result); }
+		}
+		return breaches;
+	}
+
+	/**
+	 * Measurement of one operation
+	 * @author Victor.Chan
+	 */
+	public static class Result {
+		public final String name;
+		public final long   budgetBytesPerOp;
+		public final double bytesPerOp;
+
+		Result(String name, long budgetBytesPerOp, double bytesPerOp) {
+			this.name = name;
+			this.budgetBytesPerOp = budgetBytesPerOp;
+			this.bytesPerOp = bytesPerOp;
+		}
+
+		/**
+		 * Half a byte of slack for the measurement itself
+		 */
+		public boolean isWithinBudget() {
+			return bytesPerOp <= budgetBytesPerOp + 0.5;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-48s %8.1f B/op  budget %5d  %s", name, bytesPerOp,
+								 budgetBytesPerOp, isWithinBudget() ? "ok" : "OVER BUDGET");
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/*******************************************
+ * Name     : AllocationBudgetRunner
+ * Function : Allocation budget check of the hot paths
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.bench;
+
+import com.joyfulv.example.gof.behavioral.ItemInfoAllocationBudgets;
+import com.joyfulv.example.gof.creational.CreationalAllocationBudgets;
+
+/**
+ * Runs every allocation budget and fails when one is exceeded.
+ * Bound to the test phase of the benchmarks module, so "mvn test"
+ * breaks on an allocation regression; skipped with -DskipTests.
+ *
+ * The budgets are the measured steady state rounded up a little; when
+ * a change allocates less, lower the budget with it.
+ * @author Victor.Chan
+ */
+public class AllocationBudgetRunner {
+
+	public static void main(String[] args) throws Exception {
+		AllocationBudget budget = new AllocationBudget();
+		QuietStdout.silence();
+		try {
+			CreationalAllocationBudgets.measure(budget);
+			ItemInfoAllocationBudgets.measure(budget);
+		} finally {
+			QuietStdout.restore();
+		}
+		for (AllocationBudget.Result result : budget.getResults()) {
+			System.out.println(result);
+		}
+		if (!budget.getBreaches().isEmpty()) {
+			throw new AssertionError("Allocation budget exceeded: " + budget.getBreaches());
+		}
+	}
+}
@@ -0,0 +1,46 @@
+/*******************************************
+ * Name     : BenchmarkRunner
+ * Function : Entry point of the benchmark jar
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Same command line as org.openjdk.jmh.Main, with the GC profiler
+ * (-prof gc) always on so every run reports the allocation rate
+ *
+ * java -jar benchmarks/target/benchmarks.jar [jmh options] [regexp]
+ * @author Victor.Chan
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		if (cmd.shouldHelp()) {
+			cmd.showHelp();
+			return;
+		}
+		if (cmd.shouldList()) {
+			new Runner(cmd).list();
+			return;
+		}
+		new Runner(new OptionsBuilder().parent(cmd)
+									   .addProfiler(GCProfiler.class)
+									   .build()).run();
+	}
+}
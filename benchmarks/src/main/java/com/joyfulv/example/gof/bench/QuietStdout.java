@@ -0,0 +1,52 @@
+/*******************************************
+ * Name     : QuietStdout
+ * Function : Mute System.out while a benchmark runs
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Some components print on every call (e.g. the Order constructor).
+ * The printing is kept in the measured code but goes nowhere, so the
+ * console is not flooded and the cost of the terminal is not measured.
+ * @author Victor.Chan
+ */
+public final class QuietStdout {
+
+	private static PrintStream original;
+
+	private QuietStdout() {}
+
+	public static synchronized void silence() {
+		if (original == null) {
+			original = System.out;
+			System.setOut(new PrintStream(new OutputStream() {
+				@Override
+				public void write(int b) {}
+
+				@Override
+				public void write(byte[] b, int off, int len) {}
+			}));
+		}
+	}
+
+	public static synchronized void restore() {
+		if (original != null) {
+			System.setOut(original);
+			original = null;
+		}
+	}
+}
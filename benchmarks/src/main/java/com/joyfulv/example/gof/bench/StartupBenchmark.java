@@ -0,0 +1,163 @@
+/*******************************************
+ * Name     : StartupBenchmark
+ * Function : Time to first order and first handled request
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.joyfulv.example.gof.creational.StartupProbe;
+
+/**
+ * Startup is a cold path JMH does not see: every run is a new JVM.
+ * Each configuration launches StartupProbe [runs] times and reports
+ * the median and minimum time from launch to main, to the first order
+ * and to the first handled request:
+ *
+ *   reflection, -Xshare:off   no class data sharing at all
+ *   reflection                JDK default CDS archive
+ *   table                     generated OrderTypeTable, no reflection
+ *   table + AppCDS            plus a dynamic archive of the application
+ *                             classes (-XX:SharedArchiveFile)
+ *
+ * The AppCDS archive comes from a training run of the probe with
+ * -XX:ArchiveClassesAtExit and is re-trained when older than the jar.
+ * CDS only archives classes loaded from jars, the last configuration
+ * is skipped on a class path with directories (e.g. target/classes).
+ *
+ * Usage: java -cp benchmarks.jar ...StartupBenchmark [runs] [archive.jsa]
+ * @author Victor.Chan
+ */
+public class StartupBenchmark {
+
+	static final String[] MILESTONES = { "main", "order", "request" };
+
+	private final String classPath = System.getProperty("java.class.path");
+	private final String java = System.getProperty("java.home") + 
+								File.separator + "bin" + File.separator + "java";
+
+	/**
+	 * Launch the probe once
+	 * @return milliseconds from launch to each milestone
+	 */
+	double[] launch(List<String> options, String mode) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<String>();
+		command.add(java);
+		command.addAll(options);
+		command.addAll(Arrays.asList("-cp", classPath, StartupProbe.class.getName(), mode));
+		ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+
+		long launched = System.nanoTime();
+		Process process = builder.start();
+		double[] millis = null;
+		StringBuilder output = new StringBuilder();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				output.append(line).append('\n');
+				if (line.startsWith(StartupProbe.PREFIX + " ")) {
+					millis = parse(line, launched);
+				}
+			}
+		}
+		if (process.waitFor() != 0 || millis == null) {
+			throw new IllegalStateException("Probe failed: " + command + "\n" + output);
+		}
+		return millis;
+	}
+
+	private static double[] parse(String line, long launched) {
+		double[] millis = new double[MILESTONES.length];
+		for (String field : line.substring(StartupProbe.PREFIX.length() + 1).split(" ")) {
+			String[] pair = field.split("=");
+			int milestone = Arrays.asList(MILESTONES).indexOf(pair[0]);
+			millis[milestone] = (Long.parseLong(pair[1]) - launched) / 1e6;
+		}
+		return millis;
+	}
+
+	/**
+	 * Launch [runs] times and print median and minimum per milestone
+	 */
+	void measure(String name, List<String> options, String mode, int runs) 
+											throws IOException, InterruptedException {
+		double[][] samples = new double[MILESTONES.length][runs];
+		for (int run = 0; run < runs; run++) {
+			double[] millis = launch(options, mode);
+			for (int m = 0; m < MILESTONES.length; m++) {
+				samples[m][run] = millis[m];
+			}
+		}
+		StringBuilder line = new StringBuilder(String.format("%-28s", name));
+		for (int m = 0; m < MILESTONES.length; m++) {
+			Arrays.sort(samples[m]);
+			line.append(String.format(" %10.1f %8.1f", samples[m][runs / 2], samples[m][0]));
+		}
+		System.out.println(line);
+	}
+
+	/**
+	 * Training run writing the dynamic archive, skipped while the
+	 * archive is newer than every jar of the class path; a stale
+	 * archive is rejected by the JVM without a word
+	 * @return false if the class path cannot be archived
+	 */
+	boolean train(File archive) throws IOException, InterruptedException {
+		long newest = 0;
+		for (String entry : classPath.split(File.pathSeparator)) {
+			File file = new File(entry);
+			if (file.isDirectory()) {
+				System.out.println("AppCDS skipped, class path has a directory: " + entry);
+				return false;
+			}
+			newest = Math.max(newest, file.lastModified());
+		}
+		if (archive.lastModified() < newest) {
+			// the JVM writes the archive read-only, it cannot overwrite it
+			archive.delete();
+			launch(Arrays.asList("-XX:ArchiveClassesAtExit=" + archive.getPath()), "table");
+			System.out.println("trained " + archive.getPath());
+		}
+		return archive.isFile();
+	}
+
+	/**
+	 * @param args [runs] [archive.jsa]
+	 */
+	public static void main(String[] args) throws Exception {
+		int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		File archive = new File(args.length > 1 ? args[1] : "startup.jsa");
+		StartupBenchmark benchmark = new StartupBenchmark();
+		List<String> none = new ArrayList<String>();
+
+		boolean appCds = benchmark.train(archive);
+		System.out.println(String.format("%-28s %19s %19s %19s", "ms from launch, median min",
+				"main", "first order", "first request"));
+		benchmark.measure("reflection, -Xshare:off", Arrays.asList("-Xshare:off"), "reflection", runs);
+		benchmark.measure("reflection", none, "reflection", runs);
+		benchmark.measure("table", none, "table", runs);
+		if (appCds) {
+			benchmark.measure("table + AppCDS", 
+					Arrays.asList("-XX:SharedArchiveFile=" + archive.getPath()), "table", runs);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*******************************************
+ * Name     : CloneManagerBenchmark
+ * Function : JMH benchmark of CloneManager.createClone
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.joyfulv.example.gof.creational.CloneManager.Prototype;
+import com.joyfulv.example.gof.creational.CloneManager.TreasureBox;
+import com.joyfulv.example.gof.creational.CloneManager.Tree;
+import com.joyfulv.example.gof.creational.CloneManager.Villain;
+
+/**
+ * createClone of each prototype kind:
+ * Tree (shallow), TreasureBox (clone and init), Villain (deep),
+ * cloned on the calling thread or taken from a pre-cloned pool
+ * @author Victor.Chan
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CloneManagerBenchmark {
+
+	@Param({ "Tree", "TreasureBox", "Villain" })
+	public String cloneType;
+
+	@Param({ "false", "true" })
+	public boolean pooled;
+
+	private CloneManager cloneManager;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		cloneManager = CloneManager.getCloneManager();
+		cloneManager.registerCloneableType("Tree", new Tree());
+		cloneManager.registerCloneableType("TreasureBox", new TreasureBox());
+		cloneManager.registerCloneableType("Villain", new Villain());
+		if (pooled) {
+			cloneManager.enablePool(cloneType, 4096, 65536);
+		}
+	}
+
+	@Benchmark
+	public Prototype createClone() {
+		return cloneManager.createClone(cloneType);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Prototype createCloneThreads4() {
+		return createClone();
+	}
+}
@@ -0,0 +1,95 @@
+/*******************************************
+ * Name     : CreationalAllocationBudgets
+ * Function : Allocation budgets of the creational examples
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import com.joyfulv.example.gof.bench.AllocationBudget;
+import com.joyfulv.example.gof.creational.CloneManager.TreasureBox;
+import com.joyfulv.example.gof.creational.CloneManager.Tree;
+import com.joyfulv.example.gof.creational.CloneManager.Villain;
+import com.joyfulv.example.gof.creational.OrderFactory.FactoryKeyDuplicateException;
+import com.joyfulv.example.gof.creational.OrderFactory.LimitOrder;
+import com.joyfulv.example.gof.creational.SingletonLogger.LogLevel;
+
+/**
+ * SingletonLogger.log, OrderFactory.createOrder, CloneManager.createClone
+ *
+ * The logger needs -Dcom.joyfulv.LOG_DIR and -Dcom.joyfulv.LOG_LEVEL=INFO,
+ * set by the pom; the Order constructor prints, stdout is muted by
+ * the runner.
+ * @author Victor.Chan
+ */
+public class CreationalAllocationBudgets {
+
+	public static void measure(AllocationBudget budget) throws Exception {
+		final SingletonLogger logger = SingletonLogger.getLogger("BUDGET");
+		budget.measure("SingletonLogger.log disabled level", 0,
+				new AllocationBudget.Operation() {
+					@Override
+					public Object run() throws Exception {
+						logger.log(LogLevel.DEBUG, "Budget", "measure", "message");
+						return null;
+					}
+				});
+		budget.measure("SingletonLogger.log enabled level", 976,
+				new AllocationBudget.Operation() {
+					@Override
+					public Object run() throws Exception {
+						logger.log(LogLevel.INFO, "Budget", "measure", "message");
+						return null;
+					}
+				});
+
+		final OrderFactory factory = OrderFactory.getInstance();
+		try {
+			factory.registerOrderType("limit", new LimitOrder());
+		} catch (FactoryKeyDuplicateException fkde) {
+			// registered by an earlier run in this VM
+		}
+		budget.measure("OrderFactory.createOrder", 192,
+				new AllocationBudget.Operation() {
+					@Override
+					public Object run() throws Exception {
+						return factory.createOrder("limit");
+					}
+				});
+
+		final CloneManager cloneManager = CloneManager.getCloneManager();
+		cloneManager.registerCloneableType("Tree", new Tree());
+		cloneManager.registerCloneableType("TreasureBox", new TreasureBox());
+		cloneManager.registerCloneableType("Villain", new Villain());
+		budget.measure("CloneManager.createClone Tree", 32,
+				new AllocationBudget.Operation() {
+					@Override
+					public Object run() throws Exception {
+						return cloneManager.createClone("Tree");
+					}
+				});
+		budget.measure("CloneManager.createClone TreasureBox", 24,
+				new AllocationBudget.Operation() {
+					@Override
+					public Object run() throws Exception {
+						return cloneManager.createClone("TreasureBox");
+					}
+				});
+		budget.measure("CloneManager.createClone Villain", 56,
+				new AllocationBudget.Operation() {
+					@Override
+					public Object run() throws Exception {
+						return cloneManager.createClone("Villain");
+					}
+				});
+	}
+}
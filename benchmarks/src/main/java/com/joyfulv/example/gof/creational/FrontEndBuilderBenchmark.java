@@ -0,0 +1,53 @@
+/*******************************************
+ * Name     : FrontEndBuilderBenchmark
+ * Function : JMH benchmark of the form creation
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.joyfulv.example.gof.creational.FrontEndBuilder.ExecutionTraderFormCreater;
+import com.joyfulv.example.gof.creational.FrontEndBuilder.Form;
+
+/**
+ * ExecutionTraderFormCreater.getForm, i.e. the cost of a session start
+ * @author Victor.Chan
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrontEndBuilderBenchmark {
+
+	@Benchmark
+	public Form getForm() {
+		return ExecutionTraderFormCreater.getForm();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Form getFormThreads4() {
+		return ExecutionTraderFormCreater.getForm();
+	}
+}
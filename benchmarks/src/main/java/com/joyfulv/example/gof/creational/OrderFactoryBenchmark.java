@@ -0,0 +1,98 @@
+/*******************************************
+ * Name     : OrderFactoryBenchmark
+ * Function : JMH benchmark of OrderFactory
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.joyfulv.example.gof.bench.QuietStdout;
+import com.joyfulv.example.gof.creational.OrderFactory.FactoryKeyDuplicateException;
+import com.joyfulv.example.gof.creational.OrderFactory.LimitOrder;
+import com.joyfulv.example.gof.creational.OrderFactory.MarketOrder;
+import com.joyfulv.example.gof.creational.OrderFactory.Order;
+
+/**
+ * createOrder (prototype method) against createOrderFromReflection,
+ * with and without constructor parameters. The Order constructor
+ * prints, stdout is muted during the run.
+ * @author Victor.Chan
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderFactoryBenchmark {
+
+	private OrderFactory factory;
+	private final Object[] limitParameters = { Double.valueOf(10.99) };
+
+	@Setup(Level.Trial)
+	public void setUp() throws FactoryKeyDuplicateException {
+		QuietStdout.silence();
+		factory = OrderFactory.getInstance();
+		factory.registerOrderType("limit", new LimitOrder());
+		factory.registerOrderType("market", new MarketOrder());
+		factory.registerOrderTypeByReflection("limit", LimitOrder.class);
+		factory.registerOrderTypeByReflection("market", MarketOrder.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		QuietStdout.restore();
+	}
+
+	@Benchmark
+	public Order createOrder() {
+		return factory.createOrder("limit");
+	}
+
+	@Benchmark
+	public Order createOrderFromReflection() throws Exception {
+		return factory.createOrderFromReflection("limit", null);
+	}
+
+	@Benchmark
+	public Order createOrderFromReflectionWithParameters() throws Exception {
+		return factory.createOrderFromReflection("limit", limitParameters);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Order createOrderThreads4() {
+		return createOrder();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Order createOrderFromReflectionThreads4() throws Exception {
+		return createOrderFromReflection();
+	}
+}
@@ -0,0 +1,94 @@
+/*******************************************
+ * Name     : SingletonLoggerBenchmark
+ * Function : JMH benchmark of SingletonLogger.log
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.joyfulv.example.gof.creational.SingletonLogger.LogLevel;
+
+/**
+ * log() with the level enabled (written to a file in a temporary
+ * directory) and disabled (filtered out)
+ * @author Victor.Chan
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SingletonLoggerBenchmark {
+
+	private File            logDir;
+	private SingletonLogger logger;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		logDir = Files.createTempDirectory("logger-bench").toFile();
+		System.setProperty("com.joyfulv.LOG_DIR", logDir.getPath());
+		System.setProperty("com.joyfulv.LOG_LEVEL", "INFO");
+		logger = SingletonLogger.getLogger("BENCH");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		logger.terminateLogging();
+		File[] files = logDir.listFiles();
+		if (files != null) {
+			for (File file : files) { file.delete(); }
+		}
+		logDir.delete();
+	}
+
+	@Benchmark
+	public void logEnabled() {
+		logger.log(LogLevel.INFO, "SingletonLoggerBenchmark", "logEnabled", "message");
+	}
+
+	@Benchmark
+	public void logDisabled() {
+		logger.log(LogLevel.DEBUG, "SingletonLoggerBenchmark", "logDisabled", "message");
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void logEnabledThreads4() {
+		logEnabled();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void logDisabledThreads4() {
+		logDisabled();
+	}
+}
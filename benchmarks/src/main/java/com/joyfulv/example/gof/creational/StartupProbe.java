@@ -0,0 +1,62 @@
+/*******************************************
+ * Name     : StartupProbe
+ * Function : Cold start of an order and an item-info request
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import com.joyfulv.example.gof.behavioral.ItemInfoStartup;
+import com.joyfulv.example.gof.creational.OrderFactory.LimitOrder;
+
+/**
+ * What a short-lived tool does first: get the logger, create an order,
+ * handle an item-info request. Run once per JVM by StartupBenchmark.
+ *
+ * Prints one line with the System.nanoTime() of each milestone:
+ *   startup main=... order=... request=...
+ * System.nanoTime() is the monotonic clock of the machine, so the
+ * launching process subtracts its own time taken before the launch.
+ *
+ * args: table      - order from the generated OrderTypeTable (default)
+ *       reflection - order registered and created by reflection
+ * @author Victor.Chan
+ */
+public class StartupProbe {
+
+	public static final String PREFIX = "startup";
+
+	public static void main(String[] args) throws Exception {
+		long main = System.nanoTime();
+		boolean reflection = args.length > 0 && args[0].equals("reflection");
+
+		SingletonLogger.getLogger("STARTUP");
+		OrderFactory factory = OrderFactory.getInstance();
+		Object order;
+		if (reflection) {
+			factory.registerOrderTypeByReflection("limit", LimitOrder.class);
+			order = factory.createOrderFromReflection("limit", null);
+		} else {
+			order = factory.createOrderFromTable("limit", null);
+		}
+		long ordered = System.nanoTime();
+
+		String reply = ItemInfoStartup.firstRequest("1234BK");
+		long requested = System.nanoTime();
+
+		if (order == null || reply == null) {
+			throw new IllegalStateException("Startup probe failed");
+		}
+		System.out.println(PREFIX + " main=" + main + " order=" + ordered + 
+						   " request=" + requested);
+	}
+}
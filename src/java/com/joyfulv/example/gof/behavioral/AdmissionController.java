@@ -0,0 +1,272 @@
+/*******************************************
+ * Name     : AdmissionController
+ * Function : Adaptive concurrency limit and load shedding for the
+ *            item-info service
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.behavioral;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission in front of request handling:
+ *
+ * - concurrency limit adapted with a gradient on round trip time,
+ *   limit = limit * (minRtt / rtt) + sqrt(limit), smoothed and bounded
+ * - bounded wait queue with a maximum wait, beyond that the request
+ *   is rejected at once
+ * - two priority classes: price-only requests are admitted and woken
+ *   first, full item info requests only get in while no price-only
+ *   request waits and may use half of the queue
+ *
+ * Usage: token = acquire(priority); if (token == REJECTED) reject;
+ *        try { ... } finally { release(token); }
+ * @author Victor.Chan
+ */
+public class AdmissionController {
+
+	/**
+	 * Priority classes, highest first
+	 * @author Victor.Chan
+	 */
+	public enum Priority { PRICE_ONLY, FULL_INFO }
+
+	/**
+	 * Result of acquire for a rejected request; tokens are nanoseconds
+	 * since the controller was created and never negative
+	 */
+	public static final long REJECTED = -1;
+
+	private static final int PROBE_INTERVAL = 1000;
+
+	private final int    minLimit;
+	private final int    maxLimit;
+	private final int    maxQueue;
+	private final long   maxWaitNanos;
+	private final long   origin = System.nanoTime();
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition[]   turn = new Condition[Priority.values().length];
+	private final int[]         waiting = new int[Priority.values().length];
+
+	private double limit;
+	private int    inFlight;
+	private long   minRtt = Long.MAX_VALUE;
+	private double smoothedRtt;
+	private int    samples;
+
+	private final LongAdder admitted = new LongAdder();
+	private final LongAdder queued   = new LongAdder();
+	private final LongAdder[] rejected = new LongAdder[Priority.values().length];
+
+	public AdmissionController(int initialLimit, int minLimit, int maxLimit,
+							   int maxQueue, long maxWaitMillis) {
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.maxQueue = maxQueue;
+		this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+		for (int i = 0; i < turn.length; i++) {
+			turn[i] = lock.newCondition();
+			rejected[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Enter, waiting in the queue if the limit is reached
+	 * @param priority
+	 * @return token for release, REJECTED if rejected
+	 */
+	public long acquire(Priority priority) {
+		int p = priority.ordinal();
+		lock.lock();
+		try {
+			if (canAdmit(p)) {
+				return admit();
+			}
+			int queueShare = (priority == Priority.PRICE_ONLY) ? maxQueue : maxQueue / 2;
+			if (waiting[0] + waiting[1] >= maxQueue || waiting[p] >= queueShare) {
+				rejected[p].increment();
+				return REJECTED;
+			}
+			queued.increment();
+			waiting[p]++;
+			boolean admissible = false;
+			try {
+				long remaining = maxWaitNanos;
+				while (!canAdmit(p)) {
+					if (remaining <= 0) {
+						rejected[p].increment();
+						return REJECTED;
+					}
+					remaining = turn[p].awaitNanos(remaining);
+				}
+				admissible = true;
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				rejected[p].increment();
+				return REJECTED;
+			} finally {
+				waiting[p]--;
+				if (!admissible) {
+					// the signal of a release may have been meant for us
+					signalNext();
+				}
+			}
+			return admit();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Leave and feed the round trip time into the limit
+	 * @param token from acquire
+	 */
+	public void release(long token) {
+		long rtt = System.nanoTime() - origin - token;
+		lock.lock();
+		try {
+			inFlight--;
+			updateLimit(Math.max(rtt, 1));
+			signalNext();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Wake one waiter, price-only first. Also called by a waiter that
+	 * gives up, so that a signal it consumed on timeout or interrupt
+	 * passes on to the next one, of either class. Lock held.
+	 */
+	private void signalNext() {
+		if (waiting[Priority.PRICE_ONLY.ordinal()] > 0) {
+			turn[Priority.PRICE_ONLY.ordinal()].signal();
+		} else if (waiting[Priority.FULL_INFO.ordinal()] > 0) {
+			turn[Priority.FULL_INFO.ordinal()].signal();
+		}
+	}
+
+	private boolean canAdmit(int p) {
+		return inFlight < (int)limit &&
+			   (p == Priority.PRICE_ONLY.ordinal() ||
+				waiting[Priority.PRICE_ONLY.ordinal()] == 0);
+	}
+
+	private long admit() {
+		inFlight++;
+		admitted.increment();
+		return System.nanoTime() - origin;
+	}
+
+	/**
+	 * Gradient update, minRtt is re-probed every PROBE_INTERVAL samples
+	 * so that a permanent change of the service time is picked up
+	 */
+	private void updateLimit(long rtt) {
+		smoothedRtt = (smoothedRtt == 0) ? rtt : 0.9 * smoothedRtt + 0.1 * rtt;
+		if (++samples % PROBE_INTERVAL == 0) {
+			minRtt = (long)smoothedRtt;
+		}
+		minRtt = Math.min(minRtt, rtt);
+		double gradient = Math.max(0.5, Math.min(1.0, minRtt / smoothedRtt));
+		double newLimit = limit * gradient + Math.sqrt(limit);
+		limit = Math.max(minLimit, Math.min(maxLimit, 0.8 * limit + 0.2 * newLimit));
+	}
+
+	public int getLimit() {
+		lock.lock();
+		try {
+			return (int)limit;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getAdmitted() { return admitted.sum(); }
+
+	public long getQueued() { return queued.sum(); }
+
+	public long getRejected(Priority priority) {
+		return rejected[priority.ordinal()].sum();
+	}
+
+	@Override
+	public String toString() {
+		return "Admission limit:" + getLimit() + " admitted:" + getAdmitted() +
+			   " queued:" + getQueued() +
+			   " rejected price-only:" + getRejected(Priority.PRICE_ONLY) +
+			   " full-info:" + getRejected(Priority.FULL_INFO);
+	}
+
+	/**
+	 * Embedded testing module - overload a simulated service which
+	 * serves 8 requests in parallel in 1ms and slows down beyond that
+	 * @param args
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		final AdmissionController admission =
+				new AdmissionController(16, 4, 256, 64, 5);
+		final AtomicInteger busy = new AtomicInteger();
+		final LongAdder[] served = { new LongAdder(), new LongAdder() };
+		final LongAdder slow = new LongAdder();
+		final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+
+		Thread[] clients = new Thread[200];
+		for (int i = 0; i < clients.length; i++) {
+			final Priority priority = (i % 16 == 0) ? Priority.PRICE_ONLY : Priority.FULL_INFO;
+			clients[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					while (System.nanoTime() < end) {
+						long start = System.nanoTime();
+						long token = admission.acquire(priority);
+						if (token == REJECTED) {
+							// rejected fast, back off a little
+							sleepNanos(200000);
+							continue;
+						}
+						try {
+							int concurrent = busy.incrementAndGet();
+							sleepNanos(1000000L * Math.max(1, concurrent / 8));
+						} finally {
+							busy.decrementAndGet();
+							admission.release(token);
+						}
+						served[priority.ordinal()].increment();
+						if (System.nanoTime() - start > 20000000L) { slow.increment(); }
+					}
+				}
+			});
+			clients[i].start();
+		}
+		for (Thread client : clients) { client.join(); }
+		System.out.println("served price-only:" + served[0].sum() / 3 + "/s" +
+						   " full-info:" + served[1].sum() / 3 + "/s" +
+						   " slower than 20ms:" + slow.sum());
+		System.out.println(admission);
+	}
+
+	private static void sleepNanos(long nanos) {
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -15,53 +15,490 @@
 
 package com.joyfulv.example.gof.behavioral;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.joyfulv.example.gof.jfr.HandlerStepEvent;
+
 public class CoRAWSItemInfoReqSvr {
 	
+	/**
+	 * Item lookups of the database, pluggable behind DummyDatabase
+	 * @author Victor.Chan
+	 */
+	interface ItemStore {
+		boolean isBook(String ASIN);
+		boolean isMovie(String ASIN);
+		String getBookTitle(String ASIN);
+		String getMovieTitle(String ASIN);
+		String getBookISBN(String ASIN);
+		String getMovieRate(String ASIN);
+		/** price in minor units (cents) */
+		long getPrice(String ASIN);
+		/** listed price in minor units (cents) */
+		long getListedPrice(String ASIN);
+		
+		/**
+		 * Whole item record in one fetch
+		 * @param ASIN
+		 * @return item record
+		 */
+		default ItemRecord getItem(String ASIN){
+			if (isBook(ASIN)) {
+				return new ItemRecord(ASIN, ItemKind.BOOK, 
+						getListedPrice(ASIN), getPrice(ASIN),
+						getBookTitle(ASIN), getBookISBN(ASIN));
+			} else if (isMovie(ASIN)) {
+				return new ItemRecord(ASIN, ItemKind.MOVIE, 
+						getListedPrice(ASIN), getPrice(ASIN),
+						getMovieTitle(ASIN), getMovieRate(ASIN));
+			}
+			return new ItemRecord(ASIN, ItemKind.UNKNOWN, 
+					getListedPrice(ASIN), getPrice(ASIN), null, null);
+		}
+		
+		/**
+		 * Bulk lookup of a group of items in one fetch. The default
+		 * looks the items up one by one, a store able to fetch the
+		 * group at once overrides it
+		 * @param kind expected kind of the group
+		 * @param ASINs
+		 * @return item records in the order of ASINs
+		 */
+		default List<ItemRecord> getItems(ItemKind kind, List<String> ASINs){
+			List<ItemRecord> items = new ArrayList<ItemRecord>(ASINs.size());
+			for (String ASIN : ASINs) {
+				items.add(getItem(ASIN));
+			}
+			return items;
+		}
+	}
+	
+	/**
+	 * Hard-coded store, replying testing variable
+	 * @author Victor.Chan
+	 */
+	static class HardCodedItemStore implements ItemStore {
+		public boolean isBook(String ASIN){
+			return ASIN.endsWith("BK")?true:false;
+		}
+		public boolean isMovie(String ASIN){
+			return ASIN.endsWith("MV")?true:false;
+		}
+		public String getBookTitle(String ASIN){
+			return "JAVA Blackbook";
+		}
+		public String getMovieTitle(String ASIN){
+			return "Star War";
+		}
+		public String getBookISBN(String ASIN){
+			return "1234567890";
+		}
+		public String getMovieRate(String ASIN){
+			return "PG-13";
+		}
+		public long getPrice(String ASIN){
+			return 1399;
+		}
+		public long getListedPrice(String ASIN){
+			return 1597;
+		}
+		
+		/**
+		 * The whole group in one pass, without the per-field lookups
+		 * of getItem
+		 */
+		@Override
+		public List<ItemRecord> getItems(ItemKind kind, List<String> ASINs){
+			List<ItemRecord> items = new ArrayList<ItemRecord>(ASINs.size());
+			for (String ASIN : ASINs) {
+				if (isBook(ASIN)) {
+					items.add(new ItemRecord(ASIN, ItemKind.BOOK, 1597, 1399,
+											 "JAVA Blackbook", "1234567890"));
+				} else if (isMovie(ASIN)) {
+					items.add(new ItemRecord(ASIN, ItemKind.MOVIE, 1597, 1399,
+											 "Star War", "PG-13"));
+				} else {
+					items.add(new ItemRecord(ASIN, ItemKind.UNKNOWN, 1597, 1399,
+											 null, null));
+				}
+			}
+			return items;
+		}
+	}
+	
 	/**
 	 * Dummy database class to fake database connection
-	 * Replying testing variable
+	 * Lookups go to the plugged item store, hard-coded by default
 	 * @author Victor.Chan
 	 *
 	 */
 	static class DummyDatabase {
+		private static volatile ItemStore store = new HardCodedItemStore();
+		
+		/**
+		 * Plug another item store, e.g. MappedItemStore
+		 * @param itemStore
+		 */
+		static public void setStore(ItemStore itemStore){
+			store = itemStore;
+		}
+		
 		static public boolean isBook(String ASIN){
-			return ASIN.endsWith("BK")?true:false;
+			return store.isBook(ASIN);
 		}
 		static public boolean isMovie(String ASIN){
-			return ASIN.endsWith("MV")?true:false;
+			return store.isMovie(ASIN);
 		}
 		static public String getBookTitle(String ASIN){
-			return "JAVA Blackbook";
+			return store.getBookTitle(ASIN);
 		}
 		static public String getMovieTitle(String ASIN){
-			return "Star War";
+			return store.getMovieTitle(ASIN);
 		}
 		static public String getBookISBN(String ASIN){
-			return "1234567890";
+			return store.getBookISBN(ASIN);
 		}
 		static public String getMovieRate(String ASIN){
-			return "PG-13";
+			return store.getMovieRate(ASIN);
 		}
-		static public String getPrice(String ASIN){
-			return "13.99";
+		static public long getPrice(String ASIN){
+			return store.getPrice(ASIN);
 		}
-		static public String getListedPrice(String ASIN){
-			return "15.97";
+		static public long getListedPrice(String ASIN){
+			return store.getListedPrice(ASIN);
+		}
+		
+		/**
+		 * Whole item record in one fetch
+		 * @param ASIN
+		 * @return item record
+		 */
+		static public ItemRecord getItem(String ASIN){
+			return store.getItem(ASIN);
+		}
+		
+		/**
+		 * Bulk lookup of items of one kind in one fetch
+		 * @param kind
+		 * @param ASINs
+		 * @return item records in the order of ASINs
+		 */
+		static public List<ItemRecord> getItems(ItemKind kind, List<String> ASINs){
+			return store.getItems(kind, ASINs);
+		}
+		
+		/**
+		 * Classification by ASIN suffix
+		 * @param ASIN
+		 * @return kind of the item
+		 */
+		static public ItemKind classify(String ASIN){
+			if (ASIN.endsWith("BK")) { return ItemKind.BOOK; }
+			if (ASIN.endsWith("MV")) { return ItemKind.MOVIE; }
+			return ItemKind.UNKNOWN;
 		}
 	}
 	
+	/**
+	 * Prices are carried as long minor units (cents) end-to-end,
+	 * text only exists at the edges: parsed on load, formatted on reply
+	 * @author Victor.Chan
+	 */
+	static final class Money {
+		static final int MINOR_UNITS = 100;
+		
+		private Money() {}
+		
+		/**
+		 * "13.99" to 1399, digits past the cents are dropped; the
+		 * integer part may be left out as in ".5" or "-.5"
+		 * @param price
+		 * @return minor units
+		 * @throws NumberFormatException if price is not a decimal amount
+		 * @throws ArithmeticException if the amount overflows a long
+		 */
+		static long parse(String price){
+			String p = price.trim();
+			int dot = p.indexOf('.');
+			if (dot < 0) { return Math.multiplyExact(Long.parseLong(p), MINOR_UNITS); }
+			String integer = p.substring(0, dot);
+			String digits = p.substring(dot + 1);
+			boolean negative = integer.startsWith("-");
+			boolean signOnly = integer.equals("-") || integer.equals("+");
+			if ((integer.isEmpty() || signOnly) && digits.isEmpty()) {
+				throw new NumberFormatException("No digits in \"" + price + "\"");
+			}
+			for (int i = 0; i < digits.length(); i++) {
+				if (!Character.isDigit(digits.charAt(i))) {
+					throw new NumberFormatException("Bad fraction in \"" + price + "\"");
+				}
+			}
+			long units = (integer.isEmpty() || signOnly) ? 0 : Long.parseLong(integer);
+			long fraction = Long.parseLong((digits + "00").substring(0, 2));
+			return Math.addExact(Math.multiplyExact(units, MINOR_UNITS),
+								 negative ? -fraction : fraction);
+		}
+		
+		/**
+		 * Append 1399 as "13.99" without an intermediate String;
+		 * the parts are split before dropping the sign so that
+		 * Long.MIN_VALUE does not overflow
+		 * @param sb
+		 * @param minorUnits
+		 * @return sb
+		 */
+		static StringBuilder append(StringBuilder sb, long minorUnits){
+			if (minorUnits < 0) { sb.append('-'); }
+			long units = Math.abs(minorUnits / MINOR_UNITS);
+			long fraction = Math.abs(minorUnits % MINOR_UNITS);
+			sb.append(units).append('.');
+			if (fraction < 10) { sb.append('0'); }
+			return sb.append(fraction);
+		}
+		
+		static String format(long minorUnits){
+			return append(new StringBuilder(16), minorUnits).toString();
+		}
+	}
+	
+	/**
+	 * Item category
+	 * @author Victor.Chan
+	 */
+	enum ItemKind { BOOK, MOVIE, UNKNOWN }
+	
+	/**
+	 * Immutable item record as loaded from the database.
+	 * detail is the ISBN of a book or the rating of a movie.
+	 * @author Victor.Chan
+	 */
+	static class ItemRecord {
+		private final String   ASIN;
+		private final ItemKind kind;
+		private final long     listedPrice;
+		private final long     price;
+		private final String   title;
+		private final String   detail;
+		
+		/**
+		 * @param listedPrice in minor units
+		 * @param price		  in minor units
+		 */
+		public ItemRecord(String ASIN, ItemKind kind, long listedPrice, 
+						  long price, String title, String detail){
+			this.ASIN = ASIN;
+			this.kind = kind;
+			this.listedPrice = listedPrice;
+			this.price = price;
+			this.title = title;
+			this.detail = detail;
+		}
+		
+		/**
+		 * Same item with refreshed prices
+		 */
+		public ItemRecord withPrices(long listedPrice, long price){
+			return new ItemRecord(ASIN, kind, listedPrice, price, title, detail);
+		}
+		
+		public String   getASIN()        { return ASIN; }
+		public ItemKind getKind()        { return kind; }
+		public long     getListedPrice() { return listedPrice; }
+		public long     getPrice()       { return price; }
+		public String   getTitle()       { return title; }
+		public String   getDetail()      { return detail; }
+	}
+	
 	/**
 	 * Basic Request class
 	 * @author Victor.Chan
 	 */
 	static class Request {
 		private String ASIN;
+		private ItemRecord item;
+		private boolean priceOnly;
 		
 		public Request(String ASIN){
 			this.ASIN = ASIN;
 		}
 		
+		/**
+		 * @param ASIN
+		 * @param priceOnly reply with the prices only, no item details
+		 */
+		public Request(String ASIN, boolean priceOnly){
+			this.ASIN = ASIN;
+			this.priceOnly = priceOnly;
+		}
+		
 		public String getASIN(){ return ASIN; }
+		
+		public boolean isPriceOnly(){ return priceOnly; }
+		
+		/**
+		 * Item record of the ASIN, loaded by the server before the chain
+		 * starts; a chain used on its own falls back to the database
+		 * @return item record
+		 */
+		public ItemRecord getItem(){ 
+			if (item == null) { item = DummyDatabase.getItem(ASIN); }
+			return item;
+		}
+		
+		public void setItem(ItemRecord item){ this.item = item; }
+	}
+	
+	/**
+	 * Reply fields, declared in wire order
+	 * @author Victor.Chan
+	 */
+	enum ReplyField {
+		ASIN("ASIN", false), LISTED_PRICE("ListedPrice", true), 
+		PRICE("Price", true), BOOK_TITLE("BookTitle", false), ISBN("ISBN", false),
+		MOVIE_TITLE("MovieTitle", false), MOVIE_RATING("MovieRating", false);
+		
+		private final String  wireName;
+		private final boolean monetary;
+		
+		ReplyField(String wireName, boolean monetary){ 
+			this.wireName = wireName; 
+			this.monetary = monetary;
+		}
+		
+		public String getWireName(){ return wireName; }
+		
+		/**
+		 * Monetary fields hold minor units, see Reply.setAmount
+		 */
+		public boolean isMonetary(){ return monetary; }
+	}
+	
+	/**
+	 * Reply record passed down the chain, replacing the String 
+	 * concatenation. A handler sets fields and marks the reply terminal
+	 * instead of appending "EOF"; the wire message is built once by
+	 * serialize(). Reusable through reset().
+	 * @author Victor.Chan
+	 */
+	static class Reply {
+		private static final ReplyField[] FIELDS = ReplyField.values();
+		
+		private final String[]  values  = new String[FIELDS.length];
+		private final long[]    amounts = new long[FIELDS.length];
+		private final boolean[] hasAmount = new boolean[FIELDS.length];
+		private final StringBuilder wire = new StringBuilder(128);
+		private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+		private boolean terminal;
+		private boolean unknown;
+		private boolean busy;
+		
+		public void set(ReplyField field, String value){
+			values[field.ordinal()] = value;
+		}
+		
+		public String get(ReplyField field){
+			return values[field.ordinal()];
+		}
+		
+		/**
+		 * Set a monetary field, formatted only on serialization
+		 * @param field
+		 * @param minorUnits
+		 */
+		public void setAmount(ReplyField field, long minorUnits){
+			amounts[field.ordinal()] = minorUnits;
+			hasAmount[field.ordinal()] = true;
+		}
+		
+		public long getAmount(ReplyField field){
+			return amounts[field.ordinal()];
+		}
+		
+		/**
+		 * End of the chain, no successor is called afterwards
+		 */
+		public void terminate(){ terminal = true; }
+		
+		public boolean isTerminal(){ return terminal; }
+		
+		/**
+		 * No handler knows the item
+		 */
+		public void markUnknown(){ unknown = true; }
+		
+		public boolean isUnknown(){ return unknown; }
+		
+		/**
+		 * Rejected by admission control, the client may retry later
+		 */
+		public void markBusy(){ busy = true; }
+		
+		public boolean isBusy(){ return busy; }
+		
+		public void reset(){
+			for (int i = 0; i < values.length; i++) { 
+				values[i] = null; 
+				hasAmount[i] = false;
+			}
+			terminal = false;
+			unknown  = false;
+			busy     = false;
+		}
+		
+		/**
+		 * Wire format: ASIN:...|ListedPrice:...|Price:...[|field:value]*|EOF
+		 * @return the reply message
+		 */
+		public String serialize(){
+			return buildWire().toString();
+		}
+		
+		/**
+		 * Encode the wire message as UTF-8 straight into the buffer,
+		 * no intermediate String or byte array
+		 * @param out
+		 * @return number of bytes written
+		 * @throws BufferOverflowException if out is too small
+		 */
+		public int writeTo(ByteBuffer out){
+			int start = out.position();
+			encoder.reset();
+			CoderResult result = encoder.encode(CharBuffer.wrap(buildWire()), out, true);
+			if (result.isOverflow()) { throw new BufferOverflowException(); }
+			encoder.flush(out);
+			return out.position() - start;
+		}
+		
+		private StringBuilder buildWire(){
+			wire.setLength(0);
+			for (int i = 0; i < FIELDS.length; i++) {
+				if (hasAmount[i]) {
+					if (wire.length() > 0) { wire.append('|'); }
+					wire.append(FIELDS[i].getWireName()).append(':');
+					Money.append(wire, amounts[i]);
+				} else if (values[i] != null) {
+					if (wire.length() > 0) { wire.append('|'); }
+					wire.append(FIELDS[i].getWireName()).append(':').append(values[i]);
+				}
+			}
+			if (unknown)  { wire.append("\nUNKNOW\n"); }
+			if (busy)     { wire.append("\nBUSY\n"); }
+			if (terminal) { wire.append("|EOF"); }
+			return wire;
+		}
 	}
 	
 	/**
@@ -86,8 +523,36 @@ public class CoRAWSItemInfoReqSvr {
 	 */
 	static abstract class Handler {
 		protected Handler successor;
-		protected abstract String handleRequestImpl(Request request, 
-													String replyMsg);
+		protected abstract void handleRequestImpl(Request request, 
+												  Reply reply);
+		
+		private final int traceId = HandlerTracer.register(getClass().getSimpleName());
+		
+		/**
+		 * One handler step, traced when HandlerTracer is enabled and 
+		 * recorded as HandlerStepEvent when slower than its threshold
+		 * @param request
+		 * @param reply
+		 */
+		final void invoke(Request request, Reply reply){
+			HandlerStepEvent event = new HandlerStepEvent();
+			event.begin();
+			if (HandlerTracer.ENABLED) {
+				long start = System.nanoTime();
+				this.handleRequestImpl(request, reply);
+				HandlerTracer.record(traceId, System.nanoTime() - start, 
+									 reply.isTerminal());
+			} else {
+				this.handleRequestImpl(request, reply);
+			}
+			event.end();
+			if (event.shouldCommit()) {
+				event.handler = getClass().getSimpleName();
+				event.ASIN = request.getASIN();
+				event.terminated = reply.isTerminal();
+				event.commit();
+			}
+		}
 		
 		public void setSuccessor(Handler successor) 
 										throws HandlerNotInitException{ 
@@ -99,13 +564,26 @@ public class CoRAWSItemInfoReqSvr {
 		 * Prevention of broken chain
 		 * @param request
 		 */
-		public final String handleRequest(Request request, String replyMsg){
-			String updatedMsg = this.handleRequestImpl(request, replyMsg);
-			if (successor != null && !updatedMsg.endsWith("EOF")){
-				updatedMsg = successor.handleRequest(request, updatedMsg);
+		public final void handleRequest(Request request, Reply reply){
+			this.invoke(request, reply);
+			if (successor != null && !reply.isTerminal()){
+				successor.handleRequest(request, reply);
 			}
-			return updatedMsg;
 		}
+		
+		/**
+		 * Kind of item this handler ends the chain for and that it is 
+		 * a no-op for every other kind; null if the handler may act 
+		 * on any kind. Used by DispatchTable.
+		 * @return handled item kind
+		 */
+		protected ItemKind terminatesKind(){ return null; }
+		
+		/**
+		 * True if this handler ends the chain for every item
+		 * @return catch-all flag
+		 */
+		protected boolean terminatesAll(){ return false; }
 	}
 	
 	/**
@@ -116,16 +594,16 @@ public class CoRAWSItemInfoReqSvr {
 	static class BookRequestHandler extends Handler {
 		
 		@Override
-		protected String handleRequestImpl(Request request, String replyMsg) {
-			String updatedMsg = replyMsg;
-			if (DummyDatabase.isBook(request.getASIN())){
-				updatedMsg += "|BookTitle:" + 
-						DummyDatabase.getBookTitle(request.getASIN());
-				updatedMsg += "|ISBN:"+
-						DummyDatabase.getBookISBN(request.getASIN());
-				updatedMsg += "|EOF";
+		protected ItemKind terminatesKind(){ return ItemKind.BOOK; }
+		
+		@Override
+		protected void handleRequestImpl(Request request, Reply reply) {
+			ItemRecord item = request.getItem();
+			if (item.getKind() == ItemKind.BOOK){
+				reply.set(ReplyField.BOOK_TITLE, item.getTitle());
+				reply.set(ReplyField.ISBN, item.getDetail());
+				reply.terminate();
 			} 
-			return updatedMsg;
 		}
 		
 	}
@@ -133,14 +611,11 @@ public class CoRAWSItemInfoReqSvr {
 	static class GeneralRequestHandler extends Handler {
 
 		@Override
-		protected String handleRequestImpl(Request request, String replyMsg) {
-			String updatedMsg = replyMsg;
-			updatedMsg += "ASIN:"+request.getASIN();
-			updatedMsg += "|ListedPrice:" +
-					DummyDatabase.getListedPrice(request.getASIN());
-			updatedMsg += "|Price:" +
-					DummyDatabase.getPrice(request.getASIN());
-			return updatedMsg;
+		protected void handleRequestImpl(Request request, Reply reply) {
+			ItemRecord item = request.getItem();
+			reply.set(ReplyField.ASIN, request.getASIN());
+			reply.setAmount(ReplyField.LISTED_PRICE, item.getListedPrice());
+			reply.setAmount(ReplyField.PRICE, item.getPrice());
 		}
 		
 	}
@@ -148,16 +623,16 @@ public class CoRAWSItemInfoReqSvr {
 	static class MovieRequestHandler extends Handler {
 		
 		@Override
-		protected String handleRequestImpl(Request request, String replyMsg) {
-			String updatedMsg = replyMsg;
-			if (DummyDatabase.isMovie(request.getASIN())){
-				updatedMsg += "|MovieTitle:" + 
-						DummyDatabase.getMovieTitle(request.getASIN());
-				updatedMsg += "|MovieRating:" +
-						DummyDatabase.getMovieRate(request.getASIN());
-				updatedMsg += "|EOF";
+		protected ItemKind terminatesKind(){ return ItemKind.MOVIE; }
+		
+		@Override
+		protected void handleRequestImpl(Request request, Reply reply) {
+			ItemRecord item = request.getItem();
+			if (item.getKind() == ItemKind.MOVIE){
+				reply.set(ReplyField.MOVIE_TITLE, item.getTitle());
+				reply.set(ReplyField.MOVIE_RATING, item.getDetail());
+				reply.terminate();
 			} 
-			return updatedMsg;
 		}
 	}
 	
@@ -167,21 +642,158 @@ public class CoRAWSItemInfoReqSvr {
 	 *
 	 */
 	static class UnknownRequestHandler extends Handler {
+		
+		@Override
+		protected boolean terminatesAll(){ return true; }
 
 		@Override
-		protected String handleRequestImpl(Request request, String replyMsg) {		
-			return replyMsg + "\nUNKNOW\n|EOF";
+		protected void handleRequestImpl(Request request, Reply reply) {		
+			reply.markUnknown();
+			reply.terminate();
 		}
 		
 	}
 	
 	
+	/**
+	 * Handler chain compiled into one handler list per item kind.
+	 * The setSuccessor chain stays the source of truth: a kind's list
+	 * holds, in chain order, every handler which may act on that kind,
+	 * up to the first one that ends the chain for it. Handlers which 
+	 * are declared no-op for a kind are skipped, so a new category 
+	 * adds no per request cost to the others.
+	 * Price-only requests run the handlers which act on every kind
+	 * (the general ones) and stop there.
+	 * @author Victor.Chan
+	 */
+	static class DispatchTable {
+		private final Handler[][] plans;
+		private final Handler[]   pricePlan;
+		
+		private DispatchTable(Handler[][] plans, Handler[] pricePlan){
+			this.plans = plans;
+			this.pricePlan = pricePlan;
+		}
+		
+		/**
+		 * Walk the chain once and build the list of every item kind
+		 * @param head first handler of the chain
+		 * @return compiled table
+		 */
+		static DispatchTable compile(Handler head){
+			ItemKind[] kinds = ItemKind.values();
+			Handler[][] plans = new Handler[kinds.length][];
+			for (ItemKind kind : kinds) {
+				List<Handler> plan = new ArrayList<Handler>();
+				for (Handler h = head; h != null; h = h.successor) {
+					ItemKind handled = h.terminatesKind();
+					if (handled != null && handled != kind) { continue; }
+					plan.add(h);
+					if (handled == kind || h.terminatesAll()) { break; }
+				}
+				plans[kind.ordinal()] = plan.toArray(new Handler[plan.size()]);
+			}
+			List<Handler> pricePlan = new ArrayList<Handler>();
+			for (Handler h = head; h != null; h = h.successor) {
+				if (h.terminatesKind() == null && !h.terminatesAll()) { pricePlan.add(h); }
+			}
+			return new DispatchTable(plans, pricePlan.toArray(new Handler[pricePlan.size()]));
+		}
+		
+		/**
+		 * Same result as head.handleRequest for a request with its item
+		 * @param request
+		 * @param reply
+		 */
+		void dispatch(Request request, Reply reply){
+			if (request.isPriceOnly()) {
+				for (int i = 0; i < pricePlan.length && !reply.isTerminal(); i++) {
+					pricePlan[i].invoke(request, reply);
+				}
+				reply.terminate();
+				return;
+			}
+			Handler[] plan = plans[request.getItem().getKind().ordinal()];
+			for (int i = 0; i < plan.length && !reply.isTerminal(); i++) {
+				plan[i].invoke(request, reply);
+			}
+		}
+	}
+	
 	private GeneralRequestHandler grHandler;
 	private BookRequestHandler    brHandler;
 	private MovieRequestHandler   mrHandler;
 	private UnknownRequestHandler ukHandler;
 	
+	/**
+	 * Executor for the blocking database lookups of the async chain;
+	 * each load holds one of its threads, so its size bounds the
+	 * number of store loads in flight, not the number of requests
+	 */
+	private final Executor lookupExecutor;
+	
+	private static final int DEFAULT_LOOKUP_THREADS = 64;
+	
+	/**
+	 * Read-through cache in front of the database lookups
+	 */
+	private final ItemCache itemCache;
+	
+	private static final int  DEFAULT_CACHE_SIZE    = 100000;
+	private static final long DEFAULT_PRICE_TTL_MS  = 60000;
+	
+	/**
+	 * Admission control of handleRequestAdmitted
+	 */
+	private final AdmissionController admission;
+	
+	private static final int  DEFAULT_INITIAL_LIMIT = 64;
+	private static final int  DEFAULT_MIN_LIMIT     = 8;
+	private static final int  DEFAULT_MAX_LIMIT     = 1024;
+	private static final int  DEFAULT_MAX_QUEUE     = 256;
+	private static final long DEFAULT_MAX_WAIT_MS   = 10;
+	
+	/**
+	 * Chain compiled per item kind, every entry point dispatches
+	 * through it
+	 */
+	private final DispatchTable dispatchTable;
+	
+	/**
+	 * Reply reused by the synchronous entry point of each thread
+	 */
+	private final ThreadLocal<Reply> localReply = new ThreadLocal<Reply>() {
+		@Override
+		protected Reply initialValue() { return new Reply(); }
+	};
+	
+	/**
+	 * Lookups run on the shared default pool
+	 */
 	public CoRAWSItemInfoReqSvr() {
+		this(DefaultLookupPool.EXECUTOR);
+	}
+	
+	/**
+	 * @param lookupExecutor executor running the handler lookups 
+	 * 						 of handleRequestAsync
+	 */
+	public CoRAWSItemInfoReqSvr(Executor lookupExecutor) {
+		this(lookupExecutor, new ItemCache(DEFAULT_CACHE_SIZE, 
+										   DEFAULT_PRICE_TTL_MS));
+	}
+	
+	/**
+	 * @param lookupExecutor executor running the handler lookups 
+	 * 						 of handleRequestAsync
+	 * @param itemCache		 cache of the item records
+	 */
+	public CoRAWSItemInfoReqSvr(Executor lookupExecutor, ItemCache itemCache) {
+		this.lookupExecutor = lookupExecutor;
+		this.itemCache = itemCache;
+		this.admission = new AdmissionController(DEFAULT_INITIAL_LIMIT, 
+				DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_MAX_QUEUE, 
+				DEFAULT_MAX_WAIT_MS);
 		grHandler = new GeneralRequestHandler();
 		brHandler = new BookRequestHandler();
 		mrHandler = new MovieRequestHandler();
@@ -196,6 +808,7 @@ public class CoRAWSItemInfoReqSvr {
 			System.err.println(hnie.getMessage());
 			hnie.printStackTrace();
 		}
+		dispatchTable = DispatchTable.compile(grHandler);
 	}
 	
 	/**
@@ -203,8 +816,164 @@ public class CoRAWSItemInfoReqSvr {
 	 * @param request
 	 */
 	public String handleRequest(Request request){
-		String replyMsg = "";
-		return grHandler.handleRequest(request, replyMsg);
+		Reply reply = localReply.get();
+		reply.reset();
+		request.setItem(itemCache.get(request.getASIN()));
+		dispatchTable.dispatch(request, reply);
+		return reply.serialize();
+	}
+	
+	/**
+	 * Request handling entry point behind admission control - under 
+	 * overload the request waits briefly or is rejected at once with
+	 * a BUSY reply, price-only requests take precedence
+	 * @param request
+	 */
+	public String handleRequestAdmitted(Request request){
+		AdmissionController.Priority priority = request.isPriceOnly() ?
+				AdmissionController.Priority.PRICE_ONLY : 
+				AdmissionController.Priority.FULL_INFO;
+		long token = admission.acquire(priority);
+		if (token == AdmissionController.REJECTED) {
+			Reply reply = localReply.get();
+			reply.reset();
+			reply.set(ReplyField.ASIN, request.getASIN());
+			reply.markBusy();
+			reply.terminate();
+			return reply.serialize();
+		}
+		try {
+			return handleRequest(request);
+		} finally {
+			admission.release(token);
+		}
+	}
+	
+	/**
+	 * Request handling entry point writing the reply as UTF-8 into 
+	 * a buffer, used by the network front end
+	 * @param request
+	 * @param out
+	 * @return number of bytes written
+	 */
+	public int handleRequest(Request request, ByteBuffer out){
+		Reply reply = localReply.get();
+		reply.reset();
+		request.setItem(itemCache.get(request.getASIN()));
+		dispatchTable.dispatch(request, reply);
+		return reply.writeTo(out);
+	}
+	
+	/**
+	 * Asynchronous entry point - the caller thread is never blocked.
+	 * A cached item is there at once, a miss is loaded on the lookup
+	 * executor and requests missing the same ASIN meanwhile chain on
+	 * that load without holding a thread; the compiled chain runs once
+	 * the item is there
+	 * @param request
+	 * @return future of the reply message
+	 */
+	public CompletableFuture<String> handleRequestAsync(final Request request){
+		return itemCache.getAsync(request.getASIN(), lookupExecutor)
+				.thenApply(new Function<ItemRecord, String>() {
+					@Override
+					public String apply(ItemRecord item) {
+						request.setItem(item);
+						Reply reply = new Reply();
+						dispatchTable.dispatch(request, reply);
+						return reply.serialize();
+					}
+				});
+	}
+	
+	/**
+	 * Batch entry point - requests are grouped by item kind, each group
+	 * is fetched with one bulk lookup and all groups are fetched
+	 * concurrently, then every reply is assembled through the chain
+	 * @param requests
+	 * @return replies in the order of the requests
+	 */
+	public List<String> handleRequests(List<Request> requests){
+		return handleRequestsAsync(requests).join();
+	}
+	
+	/**
+	 * Asynchronous batch entry point, see handleRequests
+	 * @param requests
+	 * @return future of the replies in the order of the requests
+	 */
+	public CompletableFuture<List<String>> handleRequestsAsync(
+											final List<Request> requests){
+		final ItemKind[] kinds = ItemKind.values();
+		final List<List<Request>> groups = new ArrayList<List<Request>>(kinds.length);
+		for (int k = 0; k < kinds.length; k++) {
+			groups.add(new ArrayList<Request>());
+		}
+		for (Request request : requests) {
+			groups.get(DummyDatabase.classify(request.getASIN()).ordinal()).add(request);
+		}
+		
+		List<CompletableFuture<Void>> lookups = new ArrayList<CompletableFuture<Void>>();
+		for (int k = 0; k < kinds.length; k++) {
+			final ItemKind kind = kinds[k];
+			final List<Request> group = groups.get(k);
+			if (group.isEmpty()) { continue; }
+			lookups.add(CompletableFuture.runAsync(new Runnable() {
+				@Override
+				public void run() {
+					List<String> ASINs = new ArrayList<String>(group.size());
+					for (Request request : group) { ASINs.add(request.getASIN()); }
+					List<ItemRecord> items = itemCache.getAll(kind, ASINs);
+					for (int i = 0; i < group.size(); i++) {
+						group.get(i).setItem(items.get(i));
+					}
+				}
+			}, lookupExecutor));
+		}
+		
+		return CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0]))
+				.thenApply(new Function<Void, List<String>>() {
+					@Override
+					public List<String> apply(Void done) {
+						List<String> replies = new ArrayList<String>(requests.size());
+						Reply reply = new Reply();
+						for (Request request : requests) {
+							reply.reset();
+							dispatchTable.dispatch(request, reply);
+							replies.add(reply.serialize());
+						}
+						return replies;
+					}
+				});
+	}
+	
+	public ItemCache getItemCache(){ return itemCache; }
+	
+	public AdmissionController getAdmission(){ return admission; }
+	
+	/**
+	 * Lookup pool shared by every instance created without an executor,
+	 * created on first use (holder idiom); its threads are started on
+	 * demand and never keep the VM alive, so it is never shut down
+	 */
+	private static final class DefaultLookupPool {
+		static final Executor EXECUTOR = Executors.newFixedThreadPool(
+				DEFAULT_LOOKUP_THREADS, new LookupThreadFactory());
+	}
+	
+	/**
+	 * Daemon threads so that the default lookup pool never keeps 
+	 * the VM alive
+	 */
+	static class LookupThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "item-lookup-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
 	}
 
 	/**
@@ -226,6 +995,86 @@ public class CoRAWSItemInfoReqSvr {
 		System.out.println();
 		System.out.println("Error example since the price is hard-coded\nprice should be 0");
 		System.out.println(infoReqSvr.handleRequest(unknownRequest));
+		
+		System.out.println("\n===== Async chain =====");
+		int concurrent = 20000;
+		List<CompletableFuture<String>> replies = 
+				new ArrayList<CompletableFuture<String>>(concurrent);
+		long start = System.nanoTime();
+		for (int i = 0; i < concurrent; i++) {
+			replies.add(infoReqSvr.handleRequestAsync(
+					new Request(i + (i % 3 == 0 ? "BK" : (i % 3 == 1 ? "MV" : "")))));
+		}
+		CompletableFuture.allOf(replies.toArray(new CompletableFuture<?>[0])).join();
+		System.out.println(concurrent + " concurrent requests in " + 
+						   (System.nanoTime() - start) / 1000000 + "ms");
+		System.out.println(replies.get(0).join());
+		System.out.println(infoReqSvr.handleRequestAsync(movieRequest).join());
+		
+		System.out.println("\n===== Async single flight =====");
+		// slow store behind two lookup threads: misses on one ASIN
+		// chain on the load in flight instead of taking a thread each
+		ItemCache slowCache = new ItemCache(1000, DEFAULT_PRICE_TTL_MS, 
+				new ItemCache.Loader() {
+			@Override
+			public ItemRecord loadItem(String ASIN) {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+				return ItemCache.DATABASE_LOADER.loadItem(ASIN);
+			}
+			
+			@Override
+			public List<ItemRecord> loadItems(ItemKind kind, List<String> ASINs) {
+				return ItemCache.DATABASE_LOADER.loadItems(kind, ASINs);
+			}
+			
+			@Override
+			public ItemRecord reloadPrices(ItemRecord stale) {
+				return ItemCache.DATABASE_LOADER.reloadPrices(stale);
+			}
+		});
+		CoRAWSItemInfoReqSvr slowSvr = new CoRAWSItemInfoReqSvr(
+				Executors.newFixedThreadPool(2, new LookupThreadFactory()), slowCache);
+		replies.clear();
+		start = System.nanoTime();
+		for (int i = 0; i < 1000; i++) {
+			replies.add(slowSvr.handleRequestAsync(new Request((i % 2) + "BK")));
+		}
+		CompletableFuture.allOf(replies.toArray(new CompletableFuture<?>[0])).join();
+		System.out.println(replies.size() + " requests on 2 slow ASINs in " + 
+						   (System.nanoTime() - start) / 1000000 + "ms");
+		System.out.println(slowCache.getStats());
+		
+		System.out.println("\n===== Batch =====");
+		List<Request> page = new ArrayList<Request>();
+		for (int i = 0; i < 100; i++) {
+			page.add(new Request("P" + i + (i % 3 == 0 ? "BK" : (i % 3 == 1 ? "MV" : ""))));
+		}
+		List<String> pageReplies = infoReqSvr.handleRequests(page);
+		System.out.println(pageReplies.size() + " replies, first: " + pageReplies.get(0));
+		System.out.println(pageReplies.get(1));
+		System.out.println(infoReqSvr.getItemCache().getStats());
+		
+		System.out.println("\n===== Admission =====");
+		System.out.println(infoReqSvr.handleRequestAdmitted(new Request("1234BK", true)));
+		System.out.println(infoReqSvr.handleRequestAdmitted(bookRequest));
+		System.out.println(infoReqSvr.getAdmission());
+		
+		System.out.println("\n===== Money =====");
+		for (String amount : new String[] { "13.99", ".5", "-.5", "-0.5", "0.999" }) {
+			System.out.println(amount + " -> " + Money.parse(amount));
+		}
+		System.out.println(Long.MIN_VALUE + " -> " + Money.format(Long.MIN_VALUE));
+		
+		if (HandlerTracer.ENABLED) {
+			System.out.println("\n===== Handler trace =====");
+			for (HandlerTracer.HandlerStats stats : HandlerTracer.snapshot()) {
+				System.out.println(stats);
+			}
+		}
 	}
 
 
@@ -0,0 +1,259 @@
+/*******************************************
+ * Name     : HandlerTracer
+ * Function : Per-handler latency tracing of the chain of responsibility
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.behavioral;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.ObjectName;
+
+/**
+ * Wall time histogram, invocation count and "terminated-at" count of
+ * every Handler.
+ *
+ * Tracing is switched on with -Dcom.joyfulv.TRACE_HANDLERS=true. The
+ * flag is a static final constant, so when it is off the JIT drops the
+ * tracing branch entirely.
+ *
+ * Each thread records into its own arrays (single writer, no lock, no
+ * CAS); snapshot() sums every thread's arrays, values read while
+ * requests are running may lag by a few events.
+ * Histogram buckets are powers of two of nanoseconds.
+ * @author Victor.Chan
+ */
+public class HandlerTracer {
+
+	public static final boolean ENABLED = Boolean.getBoolean("com.joyfulv.TRACE_HANDLERS");
+
+	static final int    BUCKETS      = 64;
+	static final String OBJECT_NAME  = "com.joyfulv.example.gof.behavioral:type=HandlerTracer";
+
+	private static final ConcurrentHashMap<String, Integer> ids =
+			new ConcurrentHashMap<String, Integer>();
+	private static final CopyOnWriteArrayList<String> names =
+			new CopyOnWriteArrayList<String>();
+	private static final CopyOnWriteArrayList<ThreadRecorder> recorders =
+			new CopyOnWriteArrayList<ThreadRecorder>();
+
+	private static final ThreadLocal<ThreadRecorder> local =
+			new ThreadLocal<ThreadRecorder>() {
+		@Override
+		protected ThreadRecorder initialValue() {
+			ThreadRecorder recorder = new ThreadRecorder();
+			recorders.add(recorder);
+			return recorder;
+		}
+	};
+
+	static {
+		if (ENABLED) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(
+						new Jmx(), new ObjectName(OBJECT_NAME));
+			} catch (Exception e) {
+				System.err.println(e.getMessage());
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private HandlerTracer() {}
+
+	/**
+	 * Trace id of a handler, handlers of the same name share one id
+	 * @param name
+	 * @return trace id
+	 */
+	static int register(String name) {
+		Integer id = ids.get(name);
+		if (id == null) {
+			synchronized (names) {
+				id = ids.get(name);
+				if (id == null) {
+					names.add(name);
+					id = names.size() - 1;
+					ids.put(name, id);
+				}
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Record one handler step of the calling thread
+	 * @param id trace id of the handler
+	 * @param nanos wall time of the step
+	 * @param terminated the step ended the chain
+	 */
+	static void record(int id, long nanos, boolean terminated) {
+		local.get().record(id, nanos, terminated);
+	}
+
+	/**
+	 * Per thread counters, written by the owner thread only
+	 */
+	private static final class ThreadRecorder {
+		volatile long[][] histograms = new long[0][];
+		volatile long[]   counts     = new long[0];
+		volatile long[]   totals     = new long[0];
+		volatile long[]   terminated = new long[0];
+
+		void record(int id, long nanos, boolean ended) {
+			long[] c = counts;
+			if (id >= c.length) {
+				grow(id + 1);
+				c = counts;
+			}
+			c[id]++;
+			totals[id] += nanos;
+			histograms[id][BUCKETS - Long.numberOfLeadingZeros(Math.max(nanos, 1))]++;
+			if (ended) { terminated[id]++; }
+		}
+
+		private void grow(int size) {
+			long[][] h = Arrays.copyOf(histograms, size);
+			for (int i = histograms.length; i < size; i++) { h[i] = new long[BUCKETS + 1]; }
+			terminated = Arrays.copyOf(terminated, size);
+			totals     = Arrays.copyOf(totals, size);
+			histograms = h;
+			counts     = Arrays.copyOf(counts, size);
+		}
+	}
+
+	/**
+	 * Aggregated statistics of a handler
+	 * @author Victor.Chan
+	 */
+	public static class HandlerStats {
+		public final String name;
+		public final long   invocations;
+		public final long   totalNanos;
+		public final long   terminatedAt;
+		private final long[] histogram;
+
+		HandlerStats(String name, long invocations, long totalNanos,
+					 long terminatedAt, long[] histogram) {
+			this.name = name;
+			this.invocations = invocations;
+			this.totalNanos = totalNanos;
+			this.terminatedAt = terminatedAt;
+			this.histogram = histogram;
+		}
+
+		public long meanNanos() {
+			return invocations == 0 ? 0 : totalNanos / invocations;
+		}
+
+		/**
+		 * Upper bound of the bucket holding the percentile
+		 * @param p 0 - 100
+		 * @return nanoseconds
+		 */
+		public long percentileNanos(double p) {
+			long rank = (long)Math.ceil(p / 100.0 * invocations);
+			long seen = 0;
+			for (int b = 0; b < histogram.length; b++) {
+				seen += histogram[b];
+				if (seen >= rank && seen > 0) {
+					return b >= 63 ? Long.MAX_VALUE : (1L << b) - 1;
+				}
+			}
+			return 0;
+		}
+
+		@Override
+		public String toString() {
+			return name + " calls:" + invocations + " terminatedAt:" + terminatedAt +
+				   " mean:" + meanNanos() + "ns p50<=" + percentileNanos(50) +
+				   "ns p99<=" + percentileNanos(99) + "ns";
+		}
+	}
+
+	/**
+	 * Sum of every thread's counters
+	 * @return statistics per handler, in registration order
+	 */
+	public static List<HandlerStats> snapshot() {
+		int n = names.size();
+		long[][] histograms = new long[n][BUCKETS + 1];
+		long[] counts = new long[n], totals = new long[n], terminated = new long[n];
+		for (ThreadRecorder recorder : recorders) {
+			long[] c = recorder.counts;
+			long[][] h = recorder.histograms;
+			long[] t = recorder.totals, e = recorder.terminated;
+			int m = Math.min(n, Math.min(c.length, h.length));
+			for (int id = 0; id < m; id++) {
+				counts[id] += c[id];
+				totals[id] += t[id];
+				terminated[id] += e[id];
+				for (int b = 0; b <= BUCKETS; b++) { histograms[id][b] += h[id][b]; }
+			}
+		}
+		List<HandlerStats> stats = new ArrayList<HandlerStats>(n);
+		for (int id = 0; id < n; id++) {
+			stats.add(new HandlerStats(names.get(id), counts[id], totals[id],
+									   terminated[id], histograms[id]));
+		}
+		return stats;
+	}
+
+	/**
+	 * JMX view of the snapshot
+	 * @author Victor.Chan
+	 */
+	public interface HandlerTracerMXBean {
+		Map<String, Long> getInvocations();
+		Map<String, Long> getTerminatedAt();
+		Map<String, Long> getMeanNanos();
+		Map<String, Long> getP99Nanos();
+	}
+
+	static class Jmx implements HandlerTracerMXBean {
+		@Override
+		public Map<String, Long> getInvocations() {
+			Map<String, Long> map = new LinkedHashMap<String, Long>();
+			for (HandlerStats s : snapshot()) { map.put(s.name, s.invocations); }
+			return map;
+		}
+
+		@Override
+		public Map<String, Long> getTerminatedAt() {
+			Map<String, Long> map = new LinkedHashMap<String, Long>();
+			for (HandlerStats s : snapshot()) { map.put(s.name, s.terminatedAt); }
+			return map;
+		}
+
+		@Override
+		public Map<String, Long> getMeanNanos() {
+			Map<String, Long> map = new LinkedHashMap<String, Long>();
+			for (HandlerStats s : snapshot()) { map.put(s.name, s.meanNanos()); }
+			return map;
+		}
+
+		@Override
+		public Map<String, Long> getP99Nanos() {
+			Map<String, Long> map = new LinkedHashMap<String, Long>();
+			for (HandlerStats s : snapshot()) { map.put(s.name, s.percentileNanos(99)); }
+			return map;
+		}
+	}
+}
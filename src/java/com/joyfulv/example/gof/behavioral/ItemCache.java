@@ -0,0 +1,431 @@
+/*******************************************
+ * Name     : ItemCache
+ * Function : Read-through cache of item records for CoRAWSItemInfoReqSvr
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.behavioral;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.DummyDatabase;
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.ItemKind;
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.ItemRecord;
+
+/**
+ * Read-through cache keyed by ASIN.
+ *
+ * - whole item record loaded in one fetch
+ * - bounded size, LRU eviction in lock striped segments
+ * - TTL on the price fields only, the rest of the record never expires
+ * - concurrent misses on the same ASIN share one load, a stale price
+ *   is reloaded by one caller while the others serve the stale record
+ * - get() loads on the caller thread, getAsync() on an executor and
+ *   hands out the future of the load, so a caller missing an ASIN
+ *   already being loaded chains on that load instead of waiting
+ * - hit / miss / coalesced / refresh / eviction counters
+ * @author Victor.Chan
+ */
+public class ItemCache {
+
+	/**
+	 * Backend of the cache
+	 * @author Victor.Chan
+	 */
+	interface Loader {
+		ItemRecord loadItem(String ASIN);
+		List<ItemRecord> loadItems(ItemKind kind, List<String> ASINs);
+		ItemRecord reloadPrices(ItemRecord stale);
+	}
+
+	/**
+	 * Default loader on DummyDatabase
+	 */
+	static final Loader DATABASE_LOADER = new Loader() {
+		@Override
+		public ItemRecord loadItem(String ASIN) {
+			return DummyDatabase.getItem(ASIN);
+		}
+
+		@Override
+		public List<ItemRecord> loadItems(ItemKind kind, List<String> ASINs) {
+			return DummyDatabase.getItems(kind, ASINs);
+		}
+
+		@Override
+		public ItemRecord reloadPrices(ItemRecord stale) {
+			return stale.withPrices(DummyDatabase.getListedPrice(stale.getASIN()),
+									DummyDatabase.getPrice(stale.getASIN()));
+		}
+	};
+
+	private static final int SEGMENTS = 16;
+
+	/**
+	 * inFlight key prefix of a price reload, apart from the item load
+	 */
+	private static final String PRICE_RELOAD = "price:";
+
+	/**
+	 * Runs the loads of get() on the caller thread
+	 */
+	private static final Executor CALLER_RUNS = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	/**
+	 * Cached record and the load time of its prices
+	 */
+	private static final class CachedItem {
+		final ItemRecord record;
+		final long       pricedAt;
+
+		CachedItem(ItemRecord record, long pricedAt) {
+			this.record = record;
+			this.pricedAt = pricedAt;
+		}
+	}
+
+	/**
+	 * Access ordered LinkedHashMap evicting its eldest entry
+	 */
+	private final class Segment extends LinkedHashMap<String, CachedItem> {
+		private static final long serialVersionUID = 4211806478127153735L;
+		private final int capacity;
+
+		Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedItem> eldest) {
+			if (size() > capacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	private final Loader    loader;
+	private final long      priceTtlNanos;
+	private final Segment[] segments;
+	private final ConcurrentHashMap<String, CompletableFuture<ItemRecord>> inFlight =
+			new ConcurrentHashMap<String, CompletableFuture<ItemRecord>>();
+
+	private final LongAdder hits           = new LongAdder();
+	private final LongAdder misses         = new LongAdder();
+	private final LongAdder coalesced      = new LongAdder();
+	private final LongAdder priceRefreshes = new LongAdder();
+	private final LongAdder evictions      = new LongAdder();
+
+	public ItemCache(int maxSize, long priceTtlMillis) {
+		this(maxSize, priceTtlMillis, DATABASE_LOADER);
+	}
+
+	public ItemCache(int maxSize, long priceTtlMillis, Loader loader) {
+		this.loader = loader;
+		this.priceTtlNanos = TimeUnit.MILLISECONDS.toNanos(priceTtlMillis);
+		this.segments = new Segment[SEGMENTS];
+		int perSegment = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment(perSegment);
+		}
+	}
+
+	/**
+	 * Cached item record, loaded on miss and re-priced once the
+	 * prices are older than the TTL
+	 * @param ASIN
+	 * @return item record
+	 */
+	public ItemRecord get(String ASIN) {
+		Segment segment = segmentFor(ASIN);
+		CachedItem entry;
+		synchronized (segment) {
+			entry = segment.get(ASIN);
+		}
+		if (entry == null) {
+			misses.increment();
+			return join(load(ASIN, segment, CALLER_RUNS));
+		}
+		hits.increment();
+		if (System.nanoTime() - entry.pricedAt > priceTtlNanos) {
+			return join(reloadPrices(ASIN, entry, segment, CALLER_RUNS));
+		}
+		return entry.record;
+	}
+
+	/**
+	 * Cached item record without blocking the caller: a hit completes
+	 * at once, a miss or a price reload runs on the executor and a
+	 * caller missing the same ASIN meanwhile gets the future of the
+	 * load in flight
+	 * @param ASIN
+	 * @param executor runs the loads
+	 * @return future of the item record
+	 */
+	public CompletableFuture<ItemRecord> getAsync(String ASIN, Executor executor) {
+		Segment segment = segmentFor(ASIN);
+		CachedItem entry;
+		synchronized (segment) {
+			entry = segment.get(ASIN);
+		}
+		if (entry == null) {
+			misses.increment();
+			return load(ASIN, segment, executor);
+		}
+		hits.increment();
+		if (System.nanoTime() - entry.pricedAt > priceTtlNanos) {
+			return reloadPrices(ASIN, entry, segment, executor);
+		}
+		return CompletableFuture.completedFuture(entry.record);
+	}
+
+	/**
+	 * Single flight price reload: the first caller reloads, concurrent
+	 * callers do not wait and serve the stale record meanwhile
+	 */
+	private CompletableFuture<ItemRecord> reloadPrices(final String ASIN,
+			final CachedItem stale, final Segment segment, Executor executor) {
+		final String key = PRICE_RELOAD + ASIN;
+		final CompletableFuture<ItemRecord> mine = new CompletableFuture<ItemRecord>();
+		if (inFlight.putIfAbsent(key, mine) != null) {
+			coalesced.increment();
+			return CompletableFuture.completedFuture(stale.record);
+		}
+		runLoad(executor, key, mine, new Runnable() {
+			@Override
+			public void run() {
+				CachedItem current;
+				synchronized (segment) {
+					current = segment.get(ASIN);
+				}
+				long now = System.nanoTime();
+				if (current != null && now - current.pricedAt <= priceTtlNanos) {
+					// reloaded between the stale read and putIfAbsent
+					mine.complete(current.record);
+					return;
+				}
+				priceRefreshes.increment();
+				CachedItem refreshed = new CachedItem(loader.reloadPrices(stale.record), now);
+				synchronized (segment) {
+					segment.put(ASIN, refreshed);
+				}
+				mine.complete(refreshed.record);
+			}
+		});
+		return mine;
+	}
+
+	/**
+	 * Cached item records of one kind, all misses are loaded with
+	 * a single bulk lookup (not coalesced with single item loads)
+	 * @param kind
+	 * @param ASINs
+	 * @return item records in the order of ASINs, null for an ASIN
+	 *         the loader did not return
+	 */
+	public List<ItemRecord> getAll(ItemKind kind, List<String> ASINs) {
+		ItemRecord[] records = new ItemRecord[ASINs.size()];
+		List<String>  missed     = new ArrayList<String>();
+		List<Integer> missedSlot = new ArrayList<Integer>();
+		long now = System.nanoTime();
+		for (int i = 0; i < records.length; i++) {
+			String ASIN = ASINs.get(i);
+			Segment segment = segmentFor(ASIN);
+			CachedItem entry;
+			synchronized (segment) {
+				entry = segment.get(ASIN);
+			}
+			if (entry == null || now - entry.pricedAt > priceTtlNanos) {
+				misses.increment();
+				missed.add(ASIN);
+				missedSlot.add(i);
+			} else {
+				hits.increment();
+				records[i] = entry.record;
+			}
+		}
+		if (!missed.isEmpty()) {
+			// matched by ASIN, the loader may skip, reorder or repeat items
+			Map<String, ItemRecord> loaded = new HashMap<String, ItemRecord>();
+			long loadedAt = System.nanoTime();
+			for (ItemRecord record : loader.loadItems(kind, missed)) {
+				loaded.put(record.getASIN(), record);
+				Segment segment = segmentFor(record.getASIN());
+				synchronized (segment) {
+					segment.put(record.getASIN(), new CachedItem(record, loadedAt));
+				}
+			}
+			for (int i = 0; i < missed.size(); i++) {
+				records[missedSlot.get(i)] = loaded.get(missed.get(i));
+			}
+		}
+		return Arrays.asList(records);
+	}
+
+	/**
+	 * Drop an item, e.g. after a catalog update
+	 * @param ASIN
+	 */
+	public void invalidate(String ASIN) {
+		Segment segment = segmentFor(ASIN);
+		synchronized (segment) {
+			segment.remove(ASIN);
+		}
+	}
+
+	/**
+	 * Single flight load, concurrent misses get the future of the
+	 * first load
+	 */
+	private CompletableFuture<ItemRecord> load(final String ASIN,
+			final Segment segment, Executor executor) {
+		final CompletableFuture<ItemRecord> mine = new CompletableFuture<ItemRecord>();
+		CompletableFuture<ItemRecord> running = inFlight.putIfAbsent(ASIN, mine);
+		if (running != null) {
+			coalesced.increment();
+			return running;
+		}
+		runLoad(executor, ASIN, mine, new Runnable() {
+			@Override
+			public void run() {
+				ItemRecord record;
+				synchronized (segment) {
+					// a load may have finished between the miss and putIfAbsent
+					CachedItem loaded = segment.get(ASIN);
+					record = (loaded == null) ? null : loaded.record;
+				}
+				if (record == null) {
+					record = loader.loadItem(ASIN);
+					synchronized (segment) {
+						segment.put(ASIN, new CachedItem(record, System.nanoTime()));
+					}
+				}
+				mine.complete(record);
+			}
+		});
+		return mine;
+	}
+
+	/**
+	 * Run an inFlight load on the executor; a failed or rejected load
+	 * fails its future, the inFlight entry goes once the load is over
+	 */
+	private void runLoad(Executor executor, final String key,
+						 final CompletableFuture<ItemRecord> future, final Runnable load) {
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					load.run();
+				} catch (RuntimeException re) {
+					future.completeExceptionally(re);
+				} finally {
+					inFlight.remove(key, future);
+				}
+			}
+		};
+		try {
+			executor.execute(task);
+		} catch (RuntimeException re) {
+			inFlight.remove(key, future);
+			future.completeExceptionally(re);
+		}
+	}
+
+	private static ItemRecord join(CompletableFuture<ItemRecord> future) {
+		try {
+			return future.join();
+		} catch (CompletionException ce) {
+			throw rethrow(ce.getCause());
+		}
+	}
+
+	private static RuntimeException rethrow(Throwable cause) {
+		return (cause instanceof RuntimeException) ?
+				(RuntimeException)cause : new CompletionException(cause);
+	}
+
+	private Segment segmentFor(String ASIN) {
+		int h = ASIN.hashCode();
+		h ^= (h >>> 16);
+		return segments[h & (SEGMENTS - 1)];
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public Stats getStats() {
+		return new Stats(hits.sum(), misses.sum(), coalesced.sum(),
+						 priceRefreshes.sum(), evictions.sum(), size());
+	}
+
+	/**
+	 * Point in time cache metrics
+	 * @author Victor.Chan
+	 */
+	public static class Stats {
+		public final long hits;
+		public final long misses;
+		public final long coalesced;
+		public final long priceRefreshes;
+		public final long evictions;
+		public final int  size;
+
+		Stats(long hits, long misses, long coalesced,
+			  long priceRefreshes, long evictions, int size) {
+			this.hits = hits;
+			this.misses = misses;
+			this.coalesced = coalesced;
+			this.priceRefreshes = priceRefreshes;
+			this.evictions = evictions;
+			this.size = size;
+		}
+
+		public double getHitRate() {
+			long total = hits + misses;
+			return total == 0 ? 0.0 : (double)hits / total;
+		}
+
+		@Override
+		public String toString() {
+			return "ItemCache hits:" + hits + " misses:" + misses +
+				   " coalesced:" + coalesced + " priceRefreshes:" + priceRefreshes +
+				   " evictions:" + evictions + " size:" + size +
+				   " hitRate:" + String.format("%.3f", getHitRate());
+		}
+	}
+}
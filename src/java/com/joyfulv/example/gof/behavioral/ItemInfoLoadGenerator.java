@@ -0,0 +1,193 @@
+/*******************************************
+ * Name     : ItemInfoLoadGenerator
+ * Function : Pipelining load generator for ItemInfoNioServer
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.behavioral;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Opens a number of connections, each sends a window of pipelined
+ * requests and reads the window of replies back. Latency of a request
+ * is measured from the send of its window to the receipt of its reply.
+ * @author Victor.Chan
+ */
+public class ItemInfoLoadGenerator {
+
+	private static final String[] SUFFIXES = { "BK", "MV", "" };
+
+	private final InetSocketAddress address;
+	private final int connections;
+	private final int pipeline;
+
+	public ItemInfoLoadGenerator(InetSocketAddress address,
+								 int connections, int pipeline) {
+		this.address = address;
+		this.connections = connections;
+		this.pipeline = pipeline;
+	}
+
+	/**
+	 * Run the load
+	 * @param requestsPerConnection
+	 * @return throughput and latency percentiles
+	 */
+	public Result run(final int requestsPerConnection) throws Exception {
+		final long[][] latencies = new long[connections][];
+		final Exception[] failure = new Exception[1];
+		final CountDownLatch done = new CountDownLatch(connections);
+
+		long start = System.nanoTime();
+		for (int c = 0; c < connections; c++) {
+			final int id = c;
+			Thread client = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						latencies[id] = runConnection(id, requestsPerConnection);
+					} catch (Exception e) {
+						synchronized (failure) { failure[0] = e; }
+					} finally {
+						done.countDown();
+					}
+				}
+			}, "item-load-" + c);
+			client.start();
+		}
+		done.await();
+		long elapsed = System.nanoTime() - start;
+		if (failure[0] != null) { throw failure[0]; }
+
+		int total = 0;
+		for (long[] l : latencies) { total += l.length; }
+		long[] all = new long[total];
+		int at = 0;
+		for (long[] l : latencies) {
+			System.arraycopy(l, 0, all, at, l.length);
+			at += l.length;
+		}
+		Arrays.sort(all);
+		return new Result(total, elapsed, all);
+	}
+
+	private long[] runConnection(int id, int requests) throws IOException {
+		long[] latency = new long[requests];
+		SocketChannel channel = SocketChannel.open(address);
+		try {
+			channel.socket().setTcpNoDelay(true);
+			ByteBuffer out = ByteBuffer.allocateDirect(pipeline * 64);
+			ByteBuffer in  = ByteBuffer.allocateDirect(64 * 1024);
+			in.limit(0);
+			int sent = 0;
+			while (sent < requests) {
+				int window = Math.min(pipeline, requests - sent);
+				out.clear();
+				for (int i = 0; i < window; i++) {
+					byte[] ASIN = ("C" + id + "N" + ((sent + i) % 1000) +
+								   SUFFIXES[(sent + i) % 3]).getBytes(StandardCharsets.UTF_8);
+					out.putInt(ASIN.length).put(ASIN);
+				}
+				out.flip();
+				long sendTime = System.nanoTime();
+				while (out.hasRemaining()) { channel.write(out); }
+
+				for (int i = 0; i < window; i++) {
+					readFrame(channel, in);
+					latency[sent + i] = System.nanoTime() - sendTime;
+				}
+				sent += window;
+			}
+		} finally {
+			channel.close();
+		}
+		return latency;
+	}
+
+	/**
+	 * Consume one reply frame, in is kept in read mode between calls
+	 */
+	private static void readFrame(SocketChannel channel, ByteBuffer in)
+									throws IOException {
+		fill(channel, in, 4);
+		int length = in.getInt();
+		fill(channel, in, length);
+		in.position(in.position() + length);
+	}
+
+	private static void fill(SocketChannel channel, ByteBuffer in, int needed)
+									throws IOException {
+		while (in.remaining() < needed) {
+			in.compact();
+			if (channel.read(in) < 0) { throw new EOFException(); }
+			in.flip();
+		}
+	}
+
+	/**
+	 * Result of a load run
+	 * @author Victor.Chan
+	 */
+	public static class Result {
+		final int    requests;
+		final long   elapsedNanos;
+		final long[] sortedLatency;
+
+		Result(int requests, long elapsedNanos, long[] sortedLatency) {
+			this.requests = requests;
+			this.elapsedNanos = elapsedNanos;
+			this.sortedLatency = sortedLatency;
+		}
+
+		public double getThroughput() {
+			return requests * 1e9 / elapsedNanos;
+		}
+
+		public long percentileMicros(double p) {
+			int index = (int)Math.min(sortedLatency.length - 1,
+									  Math.ceil(p / 100.0 * sortedLatency.length) - 1);
+			return sortedLatency[Math.max(index, 0)] / 1000;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d requests, %.0f req/s, latency us " +
+								 "p50:%d p90:%d p99:%d p99.9:%d max:%d",
+								 requests, getThroughput(),
+								 percentileMicros(50), percentileMicros(90),
+								 percentileMicros(99), percentileMicros(99.9),
+								 percentileMicros(100));
+		}
+	}
+
+	/**
+	 * Run against a server already listening
+	 * @param args host port [connections] [pipeline depth] [requests per connection]
+	 */
+	public static void main(String[] args) throws Exception {
+		InetSocketAddress address =
+				new InetSocketAddress(args[0], Integer.parseInt(args[1]));
+		int connections = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+		int pipeline    = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+		int requests    = args.length > 4 ? Integer.parseInt(args[4]) : 100000;
+		System.out.println(new ItemInfoLoadGenerator(address, connections, pipeline)
+								.run(requests));
+	}
+}
@@ -0,0 +1,409 @@
+/*******************************************
+ * Name     : ItemInfoNioServer
+ * Function : Non-blocking network front end of CoRAWSItemInfoReqSvr
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.behavioral;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.Request;
+
+/**
+ * Selector based server speaking a length-prefixed binary protocol:
+ *
+ *   request : int length, ASIN (UTF-8)
+ *   reply   : int length, reply message (UTF-8)
+ *
+ * Ints are big endian. A client may pipeline any number of requests
+ * on a connection, replies come back in request order.
+ *
+ * One acceptor thread hands connections round-robin to worker
+ * reactors. Each connection owns a direct output buffer: replies are
+ * encoded straight into it and written to the socket from there, the
+ * reply bytes are never copied through the heap. A reply larger than
+ * the whole buffer grows it.
+ * @author Victor.Chan
+ */
+public class ItemInfoNioServer {
+
+	static final int MAX_FRAME     = 1024;
+	static final int IN_BUF_SIZE   = 64 * 1024;
+	static final int OUT_BUF_SIZE  = 256 * 1024;
+
+	private final CoRAWSItemInfoReqSvr infoReqSvr;
+	private final ServerSocketChannel  serverChannel;
+	private final Selector             acceptSelector;
+	private final Reactor[]            reactors;
+	private Thread                     acceptor;
+	private volatile boolean           running = true;
+
+	public ItemInfoNioServer(CoRAWSItemInfoReqSvr infoReqSvr,
+							 InetSocketAddress address, int reactorCount)
+									throws IOException {
+		this.infoReqSvr = infoReqSvr;
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(address);
+		serverChannel.configureBlocking(false);
+		acceptSelector = Selector.open();
+		serverChannel.register(acceptSelector, SelectionKey.OP_ACCEPT);
+
+		reactors = new Reactor[reactorCount];
+		for (int i = 0; i < reactorCount; i++) {
+			reactors[i] = new Reactor("item-reactor-" + i);
+		}
+	}
+
+	public InetSocketAddress getAddress() throws IOException {
+		return (InetSocketAddress)serverChannel.getLocalAddress();
+	}
+
+	/**
+	 * Start the reactors and the acceptor thread
+	 */
+	public void start() {
+		for (Reactor reactor : reactors) {
+			reactor.start();
+		}
+		acceptor = new Thread(new Runnable() {
+			@Override
+			public void run() { acceptLoop(); }
+		}, "item-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	/**
+	 * Stop accepting and serving; returns once the threads have closed
+	 * the selectors, the server channel and every connection
+	 */
+	public void stop() throws InterruptedException {
+		running = false;
+		acceptSelector.wakeup();
+		for (Reactor reactor : reactors) {
+			reactor.selector.wakeup();
+		}
+		if (acceptor != null) { acceptor.join(); }
+		for (Reactor reactor : reactors) {
+			if (reactor.isAlive()) { reactor.join(); }
+		}
+	}
+
+	/**
+	 * CPU time used so far by the reactor threads
+	 */
+	long reactorCpuNanos() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long total = 0;
+		for (Reactor reactor : reactors) {
+			total += Math.max(threads.getThreadCpuTime(reactor.getId()), 0);
+		}
+		return total;
+	}
+
+	private void acceptLoop() {
+		int next = 0;
+		try {
+			while (running) {
+				acceptSelector.select();
+				acceptSelector.selectedKeys().clear();
+				SocketChannel channel;
+				while ((channel = serverChannel.accept()) != null) {
+					channel.configureBlocking(false);
+					channel.socket().setTcpNoDelay(true);
+					reactors[next].add(channel);
+					next = (next + 1) % reactors.length;
+				}
+			}
+		} catch (IOException ioe) {
+			System.err.println(ioe.getMessage());
+			ioe.printStackTrace();
+		} finally {
+			close(serverChannel);
+			close(acceptSelector);
+		}
+	}
+
+	/**
+	 * Per connection buffers, out is replaced by a larger one for a
+	 * reply that does not fit into an empty buffer
+	 */
+	private static final class Connection {
+		final ByteBuffer in  = ByteBuffer.allocate(IN_BUF_SIZE);
+		ByteBuffer       out = ByteBuffer.allocateDirect(OUT_BUF_SIZE);
+	}
+
+	/**
+	 * Event loop of a set of connections
+	 */
+	private final class Reactor extends Thread {
+		final Selector selector;
+		final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<SocketChannel>();
+
+		Reactor(String name) throws IOException {
+			super(name);
+			setDaemon(true);
+			selector = Selector.open();
+		}
+
+		void add(SocketChannel channel) {
+			pending.add(channel);
+			selector.wakeup();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (running) {
+					selector.select();
+					SocketChannel channel;
+					while ((channel = pending.poll()) != null) {
+						channel.register(selector, SelectionKey.OP_READ, new Connection());
+					}
+					Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+					while (keys.hasNext()) {
+						SelectionKey key = keys.next();
+						keys.remove();
+						try {
+							if (key.isReadable())                  { onRead(key); }
+							if (key.isValid() && key.isWritable()) { onWrite(key); }
+						} catch (IOException | RuntimeException e) {
+							// drop the broken connection, keep the reactor
+							key.cancel();
+							close(key.channel());
+						}
+					}
+				}
+			} catch (IOException ioe) {
+				System.err.println(ioe.getMessage());
+				ioe.printStackTrace();
+			} finally {
+				for (SelectionKey key : selector.keys()) {
+					close(key.channel());
+				}
+				SocketChannel channel;
+				while ((channel = pending.poll()) != null) {
+					close(channel);
+				}
+				close(selector);
+			}
+		}
+
+		private void onRead(SelectionKey key) throws IOException {
+			SocketChannel channel = (SocketChannel)key.channel();
+			Connection conn = (Connection)key.attachment();
+			if (channel.read(conn.in) < 0) {
+				key.cancel();
+				close(channel);
+				return;
+			}
+			serve(key, channel, conn);
+		}
+
+		private void onWrite(SelectionKey key) throws IOException {
+			serve(key, (SocketChannel)key.channel(), (Connection)key.attachment());
+		}
+
+		/**
+		 * Handle frames and write the replies; frames held back by a
+		 * full output buffer are handled as soon as the socket took
+		 * the pending replies, not only when the client sends more.
+		 * While frames are held back the key stops reading: a full
+		 * input buffer would otherwise report readable on every select
+		 */
+		private void serve(SelectionKey key, SocketChannel channel,
+						   Connection conn) throws IOException {
+			boolean heldBack;
+			boolean flushed;
+			do {
+				heldBack = processFrames(conn);
+				flushed = flush(channel, conn);
+			} while (flushed && heldBack);
+
+			if (flushed) {
+				key.interestOps(SelectionKey.OP_READ);
+			} else if (heldBack) {
+				key.interestOps(SelectionKey.OP_WRITE);
+			} else {
+				key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+			}
+		}
+
+		/**
+		 * Handle every complete frame while its reply fits into the
+		 * output buffer
+		 * @return true if complete frames are left for lack of room
+		 */
+		private boolean processFrames(Connection conn) throws IOException {
+			ByteBuffer in = conn.in;
+			boolean heldBack = false;
+			in.flip();
+			while (in.remaining() >= 4) {
+				int frameAt = in.position();
+				int length = in.getInt(frameAt);
+				if (length < 0 || length > MAX_FRAME) {
+					throw new IOException("Bad frame length " + length);
+				}
+				if (in.remaining() < 4 + length) { break; }
+				String ASIN = new String(in.array(), in.arrayOffset() + frameAt + 4,
+										 length, StandardCharsets.UTF_8);
+
+				ByteBuffer out = conn.out;
+				int lengthAt = out.position();
+				if (out.remaining() > 4) {
+					try {
+						out.position(lengthAt + 4);
+						int written = infoReqSvr.handleRequest(new Request(ASIN), out);
+						out.putInt(lengthAt, written);
+						in.position(frameAt + 4 + length);
+						continue;
+					} catch (BufferOverflowException boe) {
+						out.position(lengthAt);
+					}
+				}
+				if (lengthAt > 0) {
+					// room comes back once the pending replies are written
+					heldBack = true;
+					break;
+				}
+				// reply larger than the whole buffer
+				conn.out = ByteBuffer.allocateDirect(out.capacity() * 2);
+			}
+			in.compact();
+			return heldBack;
+		}
+
+		/**
+		 * Write pending replies
+		 * @return true if everything was written
+		 */
+		private boolean flush(SocketChannel channel, Connection conn)
+								throws IOException {
+			ByteBuffer out = conn.out;
+			out.flip();
+			channel.write(out);
+			out.compact();
+			return out.position() == 0;
+		}
+	}
+
+	private static void close(Closeable channel) {
+		try {
+			channel.close();
+		} catch (IOException ioe) {
+			// nothing left to do on close
+		}
+	}
+
+	/**
+	 * Embedded testing module - server and load generator on loopback
+	 * @param args [connections] [pipeline depth] [requests per connection]
+	 */
+	public static void main(String[] args) throws Exception {
+		int connections = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		int pipeline    = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+		int requests    = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+
+		ItemInfoNioServer server = new ItemInfoNioServer(
+				new CoRAWSItemInfoReqSvr(),
+				new InetSocketAddress("127.0.0.1", 0),
+				Runtime.getRuntime().availableProcessors());
+		server.start();
+
+		ItemInfoLoadGenerator generator =
+				new ItemInfoLoadGenerator(server.getAddress(), connections, pipeline);
+		generator.run(requests / 10);
+		System.out.println("warm-up done");
+		System.out.println(generator.run(requests));
+		checkStalledClient(server, 1000000);
+		server.stop();
+	}
+
+	/**
+	 * Pipeline requests without reading the replies until the server
+	 * holds frames back and the socket buffers are full, then check the
+	 * reactors idle instead of spinning on the unread bytes, finally
+	 * drain every reply
+	 */
+	static void checkStalledClient(ItemInfoNioServer server, final int requests)
+									throws Exception {
+		ByteBuffer frames = ByteBuffer.allocateDirect(requests * 16);
+		for (int i = 0; i < requests; i++) {
+			byte[] ASIN = ("S" + (i % 1000)).getBytes(StandardCharsets.UTF_8);
+			frames.putInt(ASIN.length).put(ASIN);
+		}
+		frames.flip();
+
+		final SocketChannel channel = SocketChannel.open(server.getAddress());
+		try {
+			channel.configureBlocking(false);
+			long idleSince = System.nanoTime();
+			while (System.nanoTime() - idleSince < 200000000L && frames.hasRemaining()) {
+				if (channel.write(frames) > 0) { idleSince = System.nanoTime(); }
+			}
+			// let the reactors work off what they read before the stall
+			Thread.sleep(1000);
+			long cpuBefore = server.reactorCpuNanos();
+			long wallBefore = System.nanoTime();
+			Thread.sleep(1000);
+			long cpu = server.reactorCpuNanos() - cpuBefore;
+			long wall = System.nanoTime() - wallBefore;
+			System.out.printf("stalled client: %d of %d KB sent, reactors busy %d ms of %d ms - %s%n",
+							  frames.position() / 1024, frames.limit() / 1024, cpu / 1000000, wall / 1000000,
+							  cpu < wall / 10 ? "idle" : "SPINNING");
+
+			channel.configureBlocking(true);
+			final int[] replies = new int[1];
+			Thread reader = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					ByteBuffer in = ByteBuffer.allocateDirect(64 * 1024);
+					try {
+						while (replies[0] < requests) {
+							if (channel.read(in) < 0) { throw new EOFException(); }
+							in.flip();
+							while (in.remaining() >= 4 && in.remaining() >= 4 + in.getInt(in.position())) {
+								in.position(in.position() + 4 + in.getInt(in.position()));
+								replies[0]++;
+							}
+							in.compact();
+						}
+					} catch (IOException ioe) {
+						System.err.println(ioe.getMessage());
+					}
+				}
+			}, "item-stalled-reader");
+			reader.start();
+			while (frames.hasRemaining()) { channel.write(frames); }
+			reader.join();
+			System.out.printf("stalled client: %d of %d replies drained%n", replies[0], requests);
+		} finally {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,546 @@
+/*******************************************
+ * Name     : MappedItemStore
+ * Function : Embedded file-backed item store behind DummyDatabase
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.behavioral;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.DummyDatabase;
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.ItemKind;
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.ItemRecord;
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.ItemStore;
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr.Money;
+
+/**
+ * Item store on two memory-mapped files:
+ *
+ *   base.dat : header record, then fixed-width item records
+ *   base.idx : open-addressing hash index (linear probing),
+ *              one long per slot holding record number + 1, 0 if empty
+ *
+ * Both files live off-heap. find() hashes the ASIN characters and
+ * compares them with the record bytes in place, so a lookup allocates
+ * nothing; only the field getters returning String allocate.
+ * ASINs are stored as one byte per character, so only ASCII ASINs of
+ * up to 15 characters can be stored, any other ASIN is never found.
+ * Files larger than 2GB are mapped in chunks, records never straddle
+ * a chunk.
+ *
+ * Bulk load from CSV, one item per line:
+ *   ASIN,kind,listedPrice,price,detail,title
+ * kind is BOOK, MOVIE or UNKNOWN, detail is the ISBN or the rating,
+ * title is last so that it may contain commas.
+ * @author Victor.Chan
+ */
+public class MappedItemStore implements ItemStore, Closeable {
+
+	private static final long MAGIC   = 0x4A564954454D5331L; // "JVITEMS1"
+
+	/* record layout */
+	private static final int ASIN_MAX     = 15;
+	private static final int TITLE_MAX    = 94;
+	private static final int DETAIL_MAX   = 31;
+	private static final int OFF_ASIN     = 0;                      // len + bytes
+	private static final int OFF_KIND     = OFF_ASIN + 1 + ASIN_MAX;
+	private static final int OFF_LISTED   = OFF_KIND + 1;           // long cents
+	private static final int OFF_PRICE    = OFF_LISTED + 8;         // long cents
+	private static final int OFF_TITLE    = OFF_PRICE + 8;          // short len + bytes
+	private static final int OFF_DETAIL   = OFF_TITLE + 2 + TITLE_MAX; // len + bytes
+	static final int RECORD_SIZE          = 168;
+
+	/* header record */
+	private static final int HDR_MAGIC    = 0;
+	private static final int HDR_COUNT    = 8;
+	private static final int HDR_CAPACITY = 16;
+
+	private static final long CHUNK = 1L << 30;
+	private static final long DATA_CHUNK = (CHUNK / RECORD_SIZE) * RECORD_SIZE;
+
+	private static final ItemKind[] KINDS = ItemKind.values();
+
+	private final RandomAccessFile dataFile;
+	private final RandomAccessFile indexFile;
+	private final Region data;
+	private final Region index;
+	private final long   mask;
+	private long         count;
+
+	private MappedItemStore(File base, boolean create, long records, long capacity)
+									throws IOException {
+		String mode = create ? "rw" : "r";
+		FileChannel.MapMode mapMode = create ?
+				FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+		dataFile  = new RandomAccessFile(dataFile(base), mode);
+		indexFile = new RandomAccessFile(indexFile(base), mode);
+		if (create) {
+			// truncate first so that no stale index slot survives
+			dataFile.setLength(0);
+			indexFile.setLength(0);
+			dataFile.setLength((records + 1) * RECORD_SIZE);
+			indexFile.setLength(capacity * 8);
+		}
+		data  = new Region(dataFile.getChannel(), mapMode, DATA_CHUNK);
+		index = new Region(indexFile.getChannel(), mapMode, CHUNK);
+		if (create) {
+			data.putLong(HDR_MAGIC, MAGIC);
+			data.putLong(HDR_CAPACITY, capacity);
+		} else if (data.getLong(HDR_MAGIC) != MAGIC) {
+			close();
+			throw new IOException("Not an item store: " + base);
+		}
+		count = data.getLong(HDR_COUNT);
+		mask  = data.getLong(HDR_CAPACITY) - 1;
+	}
+
+	/**
+	 * Open an existing store read-only
+	 * @param base path of the store without extension
+	 */
+	public static MappedItemStore open(File base) throws IOException {
+		return new MappedItemStore(base, false, 0, 0);
+	}
+
+	/**
+	 * Bulk load a store from CSV, an existing store is overwritten.
+	 * A repeated ASIN replaces the earlier record.
+	 * @param csv
+	 * @param base path of the store without extension
+	 * @return the store, open for reading
+	 */
+	public static MappedItemStore build(File csv, File base) throws IOException {
+		long lines = 0;
+		BufferedReader reader = newReader(csv);
+		try {
+			while (reader.readLine() != null) { lines++; }
+		} finally {
+			reader.close();
+		}
+		long capacity = Long.highestOneBit(Math.max(16, lines * 2 - 1)) << 1;
+
+		MappedItemStore store = new MappedItemStore(base, true, lines, capacity);
+		reader = newReader(csv);
+		try {
+			String line;
+			int lineNo = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNo++;
+				if (line.isEmpty() || line.startsWith("#") ||
+					(lineNo == 1 && line.startsWith("ASIN,"))) { continue; }
+				String[] f = line.split(",", 6);
+				if (f.length < 6) {
+					throw new IOException(csv + ":" + lineNo + " expects 6 fields");
+				}
+				store.put(f[0], ItemKind.valueOf(f[1]), Money.parse(f[2]),
+						  Money.parse(f[3]), f[5], f[4]);
+			}
+		} finally {
+			reader.close();
+		}
+		store.data.putLong(HDR_COUNT, store.count);
+		store.data.force();
+		store.index.force();
+		return store;
+	}
+
+	/**
+	 * Record number of the ASIN, allocation free
+	 * @param ASIN
+	 * @return record number, -1 if absent
+	 */
+	public long find(String ASIN) {
+		if (!isStorable(ASIN)) { return -1; }
+		long slot = hash(ASIN) & mask;
+		while (true) {
+			long entry = index.getLong(slot * 8);
+			if (entry == 0) { return -1; }
+			if (matches(entry - 1, ASIN)) { return entry - 1; }
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	public long size() { return count; }
+
+	public ItemKind getKind(long record) {
+		return KINDS[data.get(recordPos(record) + OFF_KIND)];
+	}
+
+	public long getListedPriceCents(long record) {
+		return data.getLong(recordPos(record) + OFF_LISTED);
+	}
+
+	public long getPriceCents(long record) {
+		return data.getLong(recordPos(record) + OFF_PRICE);
+	}
+
+	public String getTitle(long record) {
+		long pos = recordPos(record) + OFF_TITLE;
+		return data.getString(pos + 2, data.getShort(pos));
+	}
+
+	public String getDetail(long record) {
+		long pos = recordPos(record) + OFF_DETAIL;
+		return data.getString(pos + 1, data.get(pos));
+	}
+
+	/*
+	 * ============ ItemStore =========================
+	 */
+
+	@Override
+	public boolean isBook(String ASIN) {
+		long record = find(ASIN);
+		return record >= 0 && getKind(record) == ItemKind.BOOK;
+	}
+
+	@Override
+	public boolean isMovie(String ASIN) {
+		long record = find(ASIN);
+		return record >= 0 && getKind(record) == ItemKind.MOVIE;
+	}
+
+	@Override
+	public String getBookTitle(String ASIN) {
+		long record = find(ASIN);
+		return record >= 0 ? getTitle(record) : null;
+	}
+
+	@Override
+	public String getMovieTitle(String ASIN) {
+		return getBookTitle(ASIN);
+	}
+
+	@Override
+	public String getBookISBN(String ASIN) {
+		long record = find(ASIN);
+		return record >= 0 ? getDetail(record) : null;
+	}
+
+	@Override
+	public String getMovieRate(String ASIN) {
+		return getBookISBN(ASIN);
+	}
+
+	/**
+	 * Price of an unknown ASIN is 0
+	 */
+	@Override
+	public long getPrice(String ASIN) {
+		long record = find(ASIN);
+		return record >= 0 ? getPriceCents(record) : 0;
+	}
+
+	@Override
+	public long getListedPrice(String ASIN) {
+		long record = find(ASIN);
+		return record >= 0 ? getListedPriceCents(record) : 0;
+	}
+
+	/**
+	 * One probe for the whole record
+	 */
+	@Override
+	public ItemRecord getItem(String ASIN) {
+		return toItem(ASIN, find(ASIN));
+	}
+
+	/**
+	 * One pass for the whole group: every ASIN is probed in the index
+	 * first, then the records are read in file order
+	 */
+	@Override
+	public List<ItemRecord> getItems(ItemKind kind, List<String> ASINs) {
+		final long[] records = new long[ASINs.size()];
+		Integer[] order = new Integer[records.length];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = find(ASINs.get(i));
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return Long.compare(records[a], records[b]);
+			}
+		});
+		ItemRecord[] items = new ItemRecord[records.length];
+		for (int i : order) {
+			items[i] = toItem(ASINs.get(i), records[i]);
+		}
+		return Arrays.asList(items);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			dataFile.close();
+		} finally {
+			indexFile.close();
+		}
+	}
+
+	/*
+	 * ============ internal helpers =========================
+	 */
+
+	private ItemRecord toItem(String ASIN, long record) {
+		if (record < 0) {
+			return new ItemRecord(ASIN, ItemKind.UNKNOWN, 0, 0, null, null);
+		}
+		ItemKind kind = getKind(record);
+		return new ItemRecord(ASIN, kind,
+				getListedPriceCents(record),
+				getPriceCents(record),
+				kind == ItemKind.UNKNOWN ? null : getTitle(record),
+				kind == ItemKind.UNKNOWN ? null : getDetail(record));
+	}
+
+	private void put(String ASIN, ItemKind kind, long listedCents, long priceCents,
+					 String title, String detail) throws IOException {
+		if (!isStorable(ASIN)) {
+			throw new IOException("Invalid ASIN " + ASIN);
+		}
+		long slot = hash(ASIN) & mask;
+		long record;
+		while (true) {
+			long entry = index.getLong(slot * 8);
+			if (entry == 0) {
+				record = count++;
+				index.putLong(slot * 8, record + 1);
+				break;
+			}
+			if (matches(entry - 1, ASIN)) {
+				record = entry - 1;
+				break;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		long pos = recordPos(record);
+		data.put(pos + OFF_ASIN, (byte)ASIN.length());
+		for (int i = 0; i < ASIN.length(); i++) {
+			data.put(pos + OFF_ASIN + 1 + i, (byte)ASIN.charAt(i));
+		}
+		data.put(pos + OFF_KIND, (byte)kind.ordinal());
+		data.putLong(pos + OFF_LISTED, listedCents);
+		data.putLong(pos + OFF_PRICE, priceCents);
+		byte[] titleBytes = truncate(title, TITLE_MAX);
+		data.putShort(pos + OFF_TITLE, (short)titleBytes.length);
+		data.put(pos + OFF_TITLE + 2, titleBytes);
+		byte[] detailBytes = truncate(detail, DETAIL_MAX);
+		data.put(pos + OFF_DETAIL, (byte)detailBytes.length);
+		data.put(pos + OFF_DETAIL + 1, detailBytes);
+	}
+
+	private boolean matches(long record, String ASIN) {
+		long pos = recordPos(record) + OFF_ASIN;
+		ByteBuffer chunk = data.chunk(pos);
+		int at = data.offset(pos);
+		int length = chunk.get(at);
+		if (length != ASIN.length()) { return false; }
+		for (int i = 0; i < length; i++) {
+			if (chunk.get(at + 1 + i) != (byte)ASIN.charAt(i)) { return false; }
+		}
+		return true;
+	}
+
+	/**
+	 * 1 to ASIN_MAX ASCII characters, one byte each in the record
+	 */
+	private static boolean isStorable(String ASIN) {
+		if (ASIN.length() == 0 || ASIN.length() > ASIN_MAX) { return false; }
+		for (int i = 0; i < ASIN.length(); i++) {
+			if (ASIN.charAt(i) > 0x7F) { return false; }
+		}
+		return true;
+	}
+
+	private static long recordPos(long record) {
+		return (record + 1) * RECORD_SIZE;
+	}
+
+	/**
+	 * FNV-1a over the characters, with a final mix for linear probing
+	 */
+	private static long hash(String ASIN) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < ASIN.length(); i++) {
+			h ^= ASIN.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		h ^= (h >>> 33);
+		h *= 0xff51afd7ed558ccdL;
+		return h ^ (h >>> 33);
+	}
+
+	/**
+	 * UTF-8 bytes cut to max without splitting a character
+	 */
+	private static byte[] truncate(String text, int max) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length <= max) { return bytes; }
+		int length = max;
+		while (length > 0 && (bytes[length] & 0xC0) == 0x80) { length--; }
+		byte[] cut = new byte[length];
+		System.arraycopy(bytes, 0, cut, 0, length);
+		return cut;
+	}
+
+	private static File dataFile(File base)  { return new File(base.getPath() + ".dat"); }
+	private static File indexFile(File base) { return new File(base.getPath() + ".idx"); }
+
+	private static BufferedReader newReader(File csv) throws IOException {
+		return new BufferedReader(new InputStreamReader(
+				new FileInputStream(csv), StandardCharsets.UTF_8), 1 << 16);
+	}
+
+	/**
+	 * A file mapped in chunks, accessed with absolute positions only
+	 * so that concurrent readers need no locking
+	 */
+	private static final class Region {
+		private final MappedByteBuffer[] chunks;
+		private final long chunkBytes;
+		private final MappedByteBuffer single;
+
+		Region(FileChannel channel, FileChannel.MapMode mode, long chunkBytes)
+										throws IOException {
+			this.chunkBytes = chunkBytes;
+			long size = channel.size();
+			int n = (int)Math.max(1, (size + chunkBytes - 1) / chunkBytes);
+			chunks = new MappedByteBuffer[n];
+			for (int i = 0; i < n; i++) {
+				long start = i * chunkBytes;
+				chunks[i] = channel.map(mode, start, Math.min(chunkBytes, size - start));
+			}
+			single = (n == 1) ? chunks[0] : null;
+		}
+
+		ByteBuffer chunk(long pos) {
+			return single != null ? single : chunks[(int)(pos / chunkBytes)];
+		}
+
+		int offset(long pos) {
+			return single != null ? (int)pos : (int)(pos % chunkBytes);
+		}
+
+		byte  get(long pos)          { return chunk(pos).get(offset(pos)); }
+		short getShort(long pos)     { return chunk(pos).getShort(offset(pos)); }
+		long  getLong(long pos)      { return chunk(pos).getLong(offset(pos)); }
+		void  put(long pos, byte b)  { chunk(pos).put(offset(pos), b); }
+		void  putShort(long pos, short s) { chunk(pos).putShort(offset(pos), s); }
+		void  putLong(long pos, long l)   { chunk(pos).putLong(offset(pos), l); }
+
+		void put(long pos, byte[] bytes) {
+			ByteBuffer chunk = chunk(pos);
+			int at = offset(pos);
+			for (int i = 0; i < bytes.length; i++) { chunk.put(at + i, bytes[i]); }
+		}
+
+		String getString(long pos, int length) {
+			ByteBuffer chunk = chunk(pos);
+			int at = offset(pos);
+			byte[] bytes = new byte[length];
+			for (int i = 0; i < length; i++) { bytes[i] = chunk.get(at + i); }
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		void force() {
+			for (MappedByteBuffer chunk : chunks) { chunk.force(); }
+		}
+	}
+
+	/**
+	 * Embedded testing module - build a catalog, plug it in and
+	 * measure lookups
+	 * @param args [number of items]
+	 */
+	public static void main(String[] args) throws IOException {
+		int items = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+		File csv = File.createTempFile("catalog", ".csv");
+		File base = new File(csv.getPath() + ".store");
+		csv.deleteOnExit();
+		dataFile(base).deleteOnExit();
+		indexFile(base).deleteOnExit();
+
+		BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(csv), StandardCharsets.UTF_8), 1 << 16);
+		try {
+			writer.write("ASIN,kind,listedPrice,price,detail,title\n");
+			for (int i = 0; i < items; i++) {
+				if (i % 2 == 0) {
+					writer.write("A" + i + "BK,BOOK,15.97,13.99,1234567890,JAVA Blackbook, vol " + i + "\n");
+				} else {
+					writer.write("A" + i + "MV,MOVIE,19.99,9.5,PG-13,Star War\n");
+				}
+			}
+		} finally {
+			writer.close();
+		}
+
+		long start = System.nanoTime();
+		MappedItemStore store = build(csv, base);
+		System.out.println("Loaded " + store.size() + " items in " +
+						   (System.nanoTime() - start) / 1000000 + "ms");
+
+		String[] probes = new String[1 << 16];
+		Random random = new Random(7);
+		for (int i = 0; i < probes.length; i++) {
+			int n = random.nextInt(items);
+			probes[i] = "A" + n + (n % 2 == 0 ? "BK" : "MV");
+		}
+		long found = 0;
+		for (int round = 0; round < 3; round++) {
+			start = System.nanoTime();
+			int lookups = 10000000;
+			for (int i = 0; i < lookups; i++) {
+				found += store.find(probes[i & (probes.length - 1)]) >= 0 ? 1 : 0;
+			}
+			long ns = System.nanoTime() - start;
+			System.out.println(String.format("%.1f M lookups/s", lookups * 1e3 / ns));
+		}
+		System.out.println("found " + found);
+
+		DummyDatabase.setStore(store);
+		CoRAWSItemInfoReqSvr infoReqSvr = new CoRAWSItemInfoReqSvr();
+		System.out.println(infoReqSvr.handleRequest(new CoRAWSItemInfoReqSvr.Request("A42BK")));
+		System.out.println(infoReqSvr.handleRequest(new CoRAWSItemInfoReqSvr.Request("A43MV")));
+		System.out.println(infoReqSvr.handleRequest(new CoRAWSItemInfoReqSvr.Request("NOPE")));
+		// must not match "A1234BK" through the low byte of '\u0131'
+		System.out.println(infoReqSvr.handleRequest(new CoRAWSItemInfoReqSvr.Request("A1234BK")));
+		System.out.println(infoReqSvr.handleRequest(new CoRAWSItemInfoReqSvr.Request("A\u0131234BK")));
+		for (ItemRecord item : store.getItems(ItemKind.BOOK,
+				Arrays.asList("A42BK", "A7MV", "NOPE", "A\u0131234BK", "A8BK"))) {
+			System.out.println(item.getASIN() + " " + item.getKind() + " " + item.getTitle());
+		}
+		store.close();
+	}
+}
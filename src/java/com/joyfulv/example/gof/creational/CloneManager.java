@@ -15,8 +15,17 @@
 
 package com.joyfulv.example.gof.creational;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.joyfulv.example.gof.jfr.PrototypeClonedEvent;
 
 public class CloneManager {
 	
@@ -38,6 +47,22 @@ public class CloneManager {
 	private final Map<String, Prototype> RegisteredCloneMap = 
 			new ConcurrentHashMap<String, Prototype>();
 	
+	/**
+	 * Pools of ready-made clones, only for the types enabled by enablePool
+	 */
+	private final Map<String, ClonePool> PoolMap = 
+			new ConcurrentHashMap<String, ClonePool>();
+	
+	private static final long REFILL_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	
+	private volatile Thread refillThread;
+	
+	/**
+	 * Set by a pool wanting a refill, so that the refill thread is 
+	 * unparked once rather than by every take
+	 */
+	private final AtomicBoolean refillRequested = new AtomicBoolean();
+	
 	private CloneManager() {}
 	
 	public static CloneManager getCloneManager() {
@@ -49,9 +74,31 @@ public class CloneManager {
 			RegisteredCloneMap.put(Type, clonableClass);
 		}
 	}
-	
+
+	/**
+	 * Read only view of the registered prototypes, used by snapshot
+	 * @return registered prototypes by type
+	 */
+	Map<String, Prototype> getRegisteredTypes() {
+		return Collections.unmodifiableMap(RegisteredCloneMap);
+	}
+
 	public Prototype createClone(String cloneType) {
 		
+		PrototypeClonedEvent event = new PrototypeClonedEvent();
+		event.begin();
+		ClonePool pool = PoolMap.get(cloneType);
+		Prototype clone = (pool != null) ? pool.take() : cloneRegistered(cloneType);
+		event.end();
+		if (event.shouldCommit()) {
+			event.cloneType = cloneType;
+			event.pooled = pool != null;
+			event.commit();
+		}
+		return clone;
+	}
+	
+	private Prototype cloneRegistered(String cloneType) {
 		if (RegisteredCloneMap.containsKey(cloneType)){
 			try {
 				return (Prototype)RegisteredCloneMap.get(cloneType).clone();
@@ -63,6 +110,211 @@ public class CloneManager {
 		return null;
 	}
 	
+	/**
+	 * Keep a pool of ready-made clones of a registered type, refilled 
+	 * in the background up to highWatermark whenever it falls below 
+	 * lowWatermark. createClone of the type then pops from the pool and
+	 * clones synchronously only when the pool is empty.
+	 * 
+	 * Clones are made ahead of time, so a type whose clone() has side
+	 * effects (e.g. a Tree attached to a spatial index) should not be
+	 * pooled.
+	 * @param cloneType registered type
+	 * @param lowWatermark
+	 * @param highWatermark
+	 * @throws IllegalArgumentException for an unregistered type 
+	 */
+	public void enablePool(String cloneType, int lowWatermark, int highWatermark) {
+		Prototype prototype = RegisteredCloneMap.get(cloneType);
+		if (prototype == null) {
+			throw new IllegalArgumentException("Unregistered clone type " + cloneType);
+		}
+		if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+			throw new IllegalArgumentException("Bad watermarks " + 
+											   lowWatermark + "/" + highWatermark);
+		}
+		PoolMap.put(cloneType, new ClonePool(prototype, lowWatermark, highWatermark));
+		startRefillThread();
+	}
+	
+	/**
+	 * Stop pooling the type, pooled clones are dropped
+	 * @param cloneType
+	 */
+	public void disablePool(String cloneType) {
+		PoolMap.remove(cloneType);
+	}
+	
+	/**
+	 * @param cloneType
+	 * @return metrics of the pool, null if the type is not pooled
+	 */
+	public PoolStats getPoolStats(String cloneType) {
+		ClonePool pool = PoolMap.get(cloneType);
+		return pool == null ? null : pool.getStats(cloneType);
+	}
+	
+	private synchronized void startRefillThread() {
+		if (refillThread == null) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() { refillLoop(); }
+			}, "clone-pool-refill");
+			thread.setDaemon(true);
+			refillThread = thread;
+			thread.start();
+		}
+	}
+	
+	private void refillLoop() {
+		while (true) {
+			refillRequested.set(false);
+			boolean refilled = false;
+			for (ClonePool pool : PoolMap.values()) {
+				refilled |= pool.refill();
+			}
+			if (!refilled) {
+				LockSupport.parkNanos(this, REFILL_PERIOD_NANOS);
+			}
+		}
+	}
+	
+	private void requestRefill() {
+		if (!refillRequested.get() && refillRequested.compareAndSet(false, true)) {
+			LockSupport.unpark(refillThread);
+		}
+	}
+	
+	/**
+	 * Lock-free stack of clones of one prototype.
+	 * Every clone of the prototype, pooled or fallback, is made while
+	 * holding the prototype's monitor: clone() of a prototype may update
+	 * the prototype itself (Villain counts its IDs).
+	 */
+	private final class ClonePool {
+		private final Prototype prototype;
+		private final int lowWatermark;
+		private final int highWatermark;
+		
+		private final AtomicReference<Node> top = new AtomicReference<Node>();
+		private final AtomicInteger depth = new AtomicInteger();
+		
+		private final LongAdder hits      = new LongAdder();
+		private final LongAdder fallbacks = new LongAdder();
+		private final LongAdder refilled  = new LongAdder();
+		
+		ClonePool(Prototype prototype, int lowWatermark, int highWatermark) {
+			this.prototype = prototype;
+			this.lowWatermark = lowWatermark;
+			this.highWatermark = highWatermark;
+		}
+		
+		/**
+		 * Pop a pooled clone, clone synchronously if there is none
+		 */
+		Prototype take() {
+			Node node;
+			do {
+				node = top.get();
+			} while (node != null && !top.compareAndSet(node, node.next));
+			
+			if (node != null) {
+				if (depth.decrementAndGet() < lowWatermark) {
+					requestRefill();
+				}
+				hits.increment();
+				return node.clone;
+			}
+			fallbacks.increment();
+			requestRefill();
+			return cloneOne();
+		}
+		
+		/**
+		 * Fill up to the high watermark if below the low watermark,
+		 * run by the refill thread only
+		 * @return true if clones were added
+		 */
+		boolean refill() {
+			if (depth.get() >= lowWatermark) {
+				return false;
+			}
+			while (depth.get() < highWatermark) {
+				Prototype clone = cloneOne();
+				if (clone == null) { return false; }
+				Node node = new Node(clone);
+				do {
+					node.next = top.get();
+				} while (!top.compareAndSet(node.next, node));
+				depth.incrementAndGet();
+				refilled.increment();
+			}
+			return true;
+		}
+		
+		private Prototype cloneOne() {
+			synchronized (prototype) {
+				try {
+					return (Prototype)prototype.clone();
+				} catch (CloneNotSupportedException cnse) {
+					System.err.println(cnse.getMessage());
+					cnse.printStackTrace();
+					return null;
+				}
+			}
+		}
+		
+		PoolStats getStats(String cloneType) {
+			return new PoolStats(cloneType, depth.get(), hits.sum(), 
+								 fallbacks.sum(), refilled.sum(), System.nanoTime());
+		}
+	}
+	
+	private static final class Node {
+		final Prototype clone;
+		Node next;
+		
+		Node(Prototype clone) { this.clone = clone; }
+	}
+	
+	/**
+	 * Metrics of a clone pool at one point in time
+	 * @author Victor.Chan
+	 */
+	public static class PoolStats {
+		public final String cloneType;
+		public final int    depth;
+		public final long   hits;
+		public final long   fallbacks;
+		public final long   refilled;
+		private final long  takenAt;
+		
+		PoolStats(String cloneType, int depth, long hits, long fallbacks, 
+				  long refilled, long takenAt) {
+			this.cloneType = cloneType;
+			this.depth = depth;
+			this.hits = hits;
+			this.fallbacks = fallbacks;
+			this.refilled = refilled;
+			this.takenAt = takenAt;
+		}
+		
+		/**
+		 * @param earlier stats of the same pool taken before
+		 * @return clones refilled per second between the two
+		 */
+		public double refillRate(PoolStats earlier) {
+			long nanos = takenAt - earlier.takenAt;
+			return nanos <= 0 ? 0 : (refilled - earlier.refilled) * 1e9 / nanos;
+		}
+		
+		@Override
+		public String toString() {
+			return cloneType + " pool depth:" + depth + " hits:" + hits + 
+				   " fallbacks:" + fallbacks + " refilled:" + refilled;
+		}
+	}
+	
 	/*
 	 * ==============================================
 	 * Interface and class should extracted
@@ -90,6 +342,13 @@ public class CloneManager {
 		Double locX;
 		Double locY;
 
+		/**
+		 * Spatial index shared by the prototype and its clones,
+		 * indexSlot is -1 for a tree not registered in the index
+		 */
+		TreeSpatialIndex index;
+		int indexSlot = -1;
+
 		public Tree() {
 			this.locX = 0.0;
 			this.locY = 0.0;
@@ -101,20 +360,49 @@ public class CloneManager {
 		}
 		
 		/**
-		 * Shallow clone
+		 * Attach the spatial index, every clone made from this tree
+		 * is registered into it
+		 * @param index
+		 */
+		public void attachIndex(TreeSpatialIndex index){
+			this.index = index;
+		}
+
+		/**
+		 * Remove this tree from the index and stop indexing its clones.
+		 * The index holds its trees strongly: a clone that is no longer
+		 * used must be detached, or it is never collected.
+		 */
+		public void detachIndex(){
+			if (indexSlot >= 0) {
+				index.unregister(indexSlot);
+				indexSlot = -1;
+			}
+			index = null;
+		}
+
+		/**
+		 * Shallow clone, registered in the index of the prototype
 		 */
 		@Override
 		public Object clone() {
 			try {
-				return super.clone();
+				Tree tree = (Tree)super.clone();
+				if (index != null) {
+					tree.indexSlot = index.register(tree);
+				}
+				return tree;
 			} catch (CloneNotSupportedException cnse){
 				return null;
 			}
 		}
-		
+
 		public void setLocation(Double x, Double y){
 			this.locX = x;
 			this.locY = y;
+			if (indexSlot >= 0) {
+				index.move(indexSlot, TreeSpatialIndex.value(x), TreeSpatialIndex.value(y));
+			}
 		}
 		
 		public String toString(){
@@ -281,5 +569,31 @@ public class CloneManager {
 		
 		Villain clownThree = (Villain)clown.clone();
 		System.out.println(clownThree.toString());
+		
+		System.out.println("\n===== Pooled clones =====");
+		cloneManager.enablePool("Villain", 256, 1024);
+		try {
+			TimeUnit.MILLISECONDS.sleep(50);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+		PoolStats before = cloneManager.getPoolStats("Villain");
+		System.out.println(before);
+		// game loop: a wave of 200 spawns per 1ms frame
+		int frames = 500, wave = 200;
+		long spawnNanos = 0;
+		for (int f = 0; f < frames; f++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < wave; i++) {
+				cloneManager.createClone("Villain");
+			}
+			spawnNanos += System.nanoTime() - start;
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		PoolStats after = cloneManager.getPoolStats("Villain");
+		System.out.println(frames * wave + " spawns, " + spawnNanos / (frames * wave) + 
+						   "ns per spawn on the game loop");
+		System.out.println(after + String.format(" refill rate:%.0f/s", after.refillRate(before)));
+		System.out.println("Villain from pool :" + cloneManager.createClone("Villain"));
 	}
 }
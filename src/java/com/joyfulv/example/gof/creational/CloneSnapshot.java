@@ -0,0 +1,420 @@
+/*******************************************
+ * Name     : CloneSnapshot
+ * Function : Binary snapshot of the CloneManager registry and entities
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.joyfulv.example.gof.creational.CloneManager.Prototype;
+import com.joyfulv.example.gof.creational.CloneManager.TreasureBox;
+import com.joyfulv.example.gof.creational.CloneManager.Tree;
+import com.joyfulv.example.gof.creational.CloneManager.Villain;
+
+/**
+ * Compact snapshot without java serialization.
+ *
+ * Layout (little endian):
+ *   header   : magic, version, tree, box and villain counts
+ *   registry : count, then per entry key length, key (UTF-8), kind, record
+ *   entities : per kind one contiguous column per field
+ *
+ * Offsets are long and the file is mapped in 1GB chunks, so a snapshot
+ * may pass 2GB; every column starts aligned to 8 bytes so that no value
+ * straddles two chunks. Restore reads the columns in place, without
+ * copying them into arrays first.
+ *
+ * Entities are restored grouped by kind (trees, boxes, villains),
+ * the original interleaving is not kept.
+ * @author Victor.Chan
+ */
+public class CloneSnapshot {
+
+	private static final int  MAGIC   = 0x4A56434D; // "JVCM"
+	private static final int  VERSION = 2;
+	private static final int  HEADER_BYTES = 4 * 5;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final byte KIND_TREE     = 1;
+	private static final byte KIND_TREASURE = 2;
+	private static final byte KIND_VILLAIN  = 3;
+
+	private static final int TREE_BYTES     = 8 + 8;
+	private static final int TREASURE_BYTES = 1 + 4 + 4;
+	private static final int VILLAIN_BYTES  = 4 + 4 + 4 + TREASURE_BYTES;
+
+	private CloneSnapshot() {}
+
+	/**
+	 * Write the registered prototypes and live entities to file
+	 * @param file
+	 * @param cloneManager
+	 * @param entities
+	 * @throws IOException
+	 */
+	public static void write(File file, CloneManager cloneManager,
+							 Collection<? extends Prototype> entities)
+									throws IOException {
+
+		Map<String, Prototype> registry = cloneManager.getRegisteredTypes();
+		List<String>   keys  = new ArrayList<String>(registry.size());
+		List<byte[]>   names = new ArrayList<byte[]>(registry.size());
+		long registryBytes = 4;
+		for (Map.Entry<String, Prototype> entry : registry.entrySet()) {
+			byte[] name = entry.getKey().getBytes(UTF8);
+			keys.add(entry.getKey());
+			names.add(name);
+			registryBytes += 4 + name.length + 1 + recordBytes(entry.getValue());
+		}
+
+		int trees = 0, boxes = 0, villains = 0;
+		for (Prototype entity : entities) {
+			switch (kindOf(entity)) {
+				case KIND_TREE:     trees++;    break;
+				case KIND_TREASURE: boxes++;    break;
+				default:            villains++; break;
+			}
+		}
+
+		Layout layout = new Layout(HEADER_BYTES + registryBytes, trees, boxes, villains);
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(0);
+			raf.setLength(layout.total);
+			Region region = new Region(raf.getChannel(), FileChannel.MapMode.READ_WRITE,
+									   layout.total);
+
+			ByteBuffer head = region.head();
+			head.putInt(MAGIC).putInt(VERSION);
+			head.putInt(trees).putInt(boxes).putInt(villains);
+			head.putInt(keys.size());
+			for (int i = 0; i < keys.size(); i++) {
+				byte[] name = names.get(i);
+				Prototype prototype = registry.get(keys.get(i));
+				head.putInt(name.length).put(name);
+				head.put(kindOf(prototype));
+				putRecord(head, prototype);
+			}
+
+			long t = 0, b = 0, v = 0;
+			for (Prototype entity : entities) {
+				switch (kindOf(entity)) {
+					case KIND_TREE:
+						Tree tree = (Tree)entity;
+						region.putDouble(layout.tx + t * 8, value(tree.locX));
+						region.putDouble(layout.ty + t * 8, value(tree.locY));
+						t++;
+						break;
+					case KIND_TREASURE:
+						TreasureBox box = (TreasureBox)entity;
+						region.put(layout.bo + b, (byte)(box.opened ? 1 : 0));
+						region.putInt(layout.bd + b * 4, box.defaultValue);
+						region.putInt(layout.bv + b * 4, box.value);
+						b++;
+						break;
+					default:
+						Villain villain = (Villain)entity;
+						region.putInt(layout.vi + v * 4, villain.initHP);
+						region.putInt(layout.vh + v * 4, villain.HP);
+						region.putInt(layout.vd + v * 4, villain.ID);
+						region.put(layout.vo + v, (byte)(villain.treasure.opened ? 1 : 0));
+						region.putInt(layout.vtd + v * 4, villain.treasure.defaultValue);
+						region.putInt(layout.vtv + v * 4, villain.treasure.value);
+						v++;
+						break;
+				}
+			}
+			region.force();
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Restore a snapshot through a memory-mapped read.
+	 * Prototypes are registered into the clone manager (existing types
+	 * are kept), live entities are returned.
+	 * @param file
+	 * @param cloneManager
+	 * @return restored entities
+	 * @throws IOException
+	 */
+	public static List<Prototype> restore(File file, CloneManager cloneManager)
+									throws IOException {
+
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			if (channel.size() < HEADER_BYTES + 4) {
+				throw new IOException("Not a clone snapshot: " + file);
+			}
+			Region region = new Region(channel, FileChannel.MapMode.READ_ONLY,
+									   channel.size());
+
+			ByteBuffer head = region.head();
+			if (head.getInt() != MAGIC || head.getInt() != VERSION) {
+				throw new IOException("Not a clone snapshot: " + file);
+			}
+			int trees    = head.getInt();
+			int boxes    = head.getInt();
+			int villains = head.getInt();
+
+			int registryCount = head.getInt();
+			for (int i = 0; i < registryCount; i++) {
+				byte[] name = new byte[head.getInt()];
+				head.get(name);
+				cloneManager.registerCloneableType(new String(name, UTF8),
+												   getRecord(head, head.get()));
+			}
+
+			Layout layout = new Layout(head.position(), trees, boxes, villains);
+			if (layout.total != channel.size()) {
+				throw new IOException("Truncated clone snapshot: " + file);
+			}
+
+			List<Prototype> entities =
+					new ArrayList<Prototype>(trees + boxes + villains);
+			for (long i = 0; i < trees; i++) {
+				entities.add(new Tree(region.getDouble(layout.tx + i * 8),
+									  region.getDouble(layout.ty + i * 8)));
+			}
+			for (long i = 0; i < boxes; i++) {
+				entities.add(newTreasureBox(region.get(layout.bo + i) != 0,
+											region.getInt(layout.bd + i * 4),
+											region.getInt(layout.bv + i * 4)));
+			}
+			for (long i = 0; i < villains; i++) {
+				Villain villain = new Villain();
+				villain.initHP = region.getInt(layout.vi + i * 4);
+				villain.HP = region.getInt(layout.vh + i * 4);
+				villain.ID = region.getInt(layout.vd + i * 4);
+				setTreasure(villain.treasure, region.get(layout.vo + i) != 0,
+							region.getInt(layout.vtd + i * 4),
+							region.getInt(layout.vtv + i * 4));
+				entities.add(villain);
+			}
+			return entities;
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Column offsets of the entity section, every column starts
+	 * aligned to 8 bytes
+	 */
+	private static final class Layout {
+		final long tx, ty;
+		final long bo, bd, bv;
+		final long vi, vh, vd, vo, vtd, vtv;
+		final long total;
+
+		Layout(long registryEnd, long trees, long boxes, long villains) {
+			tx    = align(registryEnd);
+			ty    = tx + trees * 8;
+			bo    = ty + trees * 8;
+			bd    = align(bo + boxes);
+			bv    = align(bd + boxes * 4);
+			vi    = align(bv + boxes * 4);
+			vh    = align(vi + villains * 4);
+			vd    = align(vh + villains * 4);
+			vo    = align(vd + villains * 4);
+			vtd   = align(vo + villains);
+			vtv   = align(vtd + villains * 4);
+			total = vtv + villains * 4;
+		}
+
+		private static long align(long pos) {
+			return (pos + 7) & ~7L;
+		}
+	}
+
+	/**
+	 * A file mapped in chunks, accessed with long absolute positions;
+	 * the header and the registry are read and written in the first
+	 * chunk
+	 */
+	private static final class Region {
+		private static final long CHUNK = 1L << 30;
+
+		private final MappedByteBuffer[] chunks;
+		private final MappedByteBuffer single;
+
+		Region(FileChannel channel, FileChannel.MapMode mode, long size)
+										throws IOException {
+			int n = (int)Math.max(1, (size + CHUNK - 1) / CHUNK);
+			chunks = new MappedByteBuffer[n];
+			for (int i = 0; i < n; i++) {
+				long start = i * CHUNK;
+				chunks[i] = channel.map(mode, start, Math.min(CHUNK, size - start));
+				chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+			}
+			single = (n == 1) ? chunks[0] : null;
+		}
+
+		ByteBuffer head() {
+			return chunks[0].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		private ByteBuffer chunk(long pos) {
+			return single != null ? single : chunks[(int)(pos / CHUNK)];
+		}
+
+		private int offset(long pos) {
+			return single != null ? (int)pos : (int)(pos % CHUNK);
+		}
+
+		byte   get(long pos)       { return chunk(pos).get(offset(pos)); }
+		int    getInt(long pos)    { return chunk(pos).getInt(offset(pos)); }
+		double getDouble(long pos) { return chunk(pos).getDouble(offset(pos)); }
+		void   put(long pos, byte b)         { chunk(pos).put(offset(pos), b); }
+		void   putInt(long pos, int i)       { chunk(pos).putInt(offset(pos), i); }
+		void   putDouble(long pos, double d) { chunk(pos).putDouble(offset(pos), d); }
+
+		void force() {
+			for (MappedByteBuffer chunk : chunks) { chunk.force(); }
+		}
+	}
+
+	/*
+	 * ============ record helpers =========================
+	 */
+
+	private static byte kindOf(Prototype prototype) {
+		if (prototype instanceof Tree)        { return KIND_TREE; }
+		if (prototype instanceof TreasureBox) { return KIND_TREASURE; }
+		if (prototype instanceof Villain)     { return KIND_VILLAIN; }
+		throw new IllegalArgumentException("No snapshot layout for " +
+										   prototype.getClass().getName());
+	}
+
+	private static int recordBytes(Prototype prototype) {
+		switch (kindOf(prototype)) {
+			case KIND_TREE:     return TREE_BYTES;
+			case KIND_TREASURE: return TREASURE_BYTES;
+			default:            return VILLAIN_BYTES;
+		}
+	}
+
+	private static void putRecord(ByteBuffer buf, Prototype prototype) {
+		switch (kindOf(prototype)) {
+			case KIND_TREE:
+				Tree tree = (Tree)prototype;
+				buf.putDouble(value(tree.locX)).putDouble(value(tree.locY));
+				break;
+			case KIND_TREASURE:
+				putTreasure(buf, (TreasureBox)prototype);
+				break;
+			default:
+				Villain villain = (Villain)prototype;
+				buf.putInt(villain.initHP).putInt(villain.HP).putInt(villain.ID);
+				putTreasure(buf, villain.treasure);
+				break;
+		}
+	}
+
+	private static Prototype getRecord(ByteBuffer buf, byte kind)
+									throws IOException {
+		switch (kind) {
+			case KIND_TREE:
+				return new Tree(buf.getDouble(), buf.getDouble());
+			case KIND_TREASURE:
+				return newTreasureBox(buf.get() != 0, buf.getInt(), buf.getInt());
+			case KIND_VILLAIN:
+				Villain villain = new Villain();
+				villain.initHP = buf.getInt();
+				villain.HP = buf.getInt();
+				villain.ID = buf.getInt();
+				setTreasure(villain.treasure, buf.get() != 0,
+							buf.getInt(), buf.getInt());
+				return villain;
+			default:
+				throw new IOException("Unknown prototype kind " + kind);
+		}
+	}
+
+	private static void putTreasure(ByteBuffer buf, TreasureBox box) {
+		buf.put((byte)(box.opened ? 1 : 0));
+		buf.putInt(box.defaultValue).putInt(box.value);
+	}
+
+	private static TreasureBox newTreasureBox(boolean opened,
+											  int defaultValue, int value) {
+		TreasureBox box = new TreasureBox();
+		setTreasure(box, opened, defaultValue, value);
+		return box;
+	}
+
+	private static void setTreasure(TreasureBox box, boolean opened,
+									int defaultValue, int value) {
+		box.opened = opened;
+		box.defaultValue = defaultValue;
+		box.value = value;
+	}
+
+	private static double value(Double d) {
+		return d == null ? 0.0 : d.doubleValue();
+	}
+
+	/**
+	 * Embedded testing module
+	 * @param args
+	 */
+	public static void main(String[] args) throws IOException {
+
+		CloneManager cloneManager = CloneManager.getCloneManager();
+		cloneManager.registerCloneableType("Tree", new Tree(1.0, 2.0));
+		cloneManager.registerCloneableType("TreasureBox", new TreasureBox(50));
+		cloneManager.registerCloneableType("Villain", new Villain(100, 10, 1));
+
+		int count = 1000000;
+		List<Prototype> world = new ArrayList<Prototype>(count * 3);
+		for (int i = 0; i < count; i++) {
+			Tree tree = (Tree)cloneManager.createClone("Tree");
+			tree.setLocation((double)i, (double)-i);
+			world.add(tree);
+			world.add(cloneManager.createClone("TreasureBox"));
+			world.add(cloneManager.createClone("Villain"));
+		}
+
+		File file = File.createTempFile("clone", ".snapshot");
+		file.deleteOnExit();
+
+		long start = System.nanoTime();
+		write(file, cloneManager, world);
+		System.out.println("Wrote " + world.size() + " entities, " +
+						   file.length() + " bytes in " +
+						   (System.nanoTime() - start) / 1000000 + "ms");
+
+		start = System.nanoTime();
+		List<Prototype> restored = restore(file, cloneManager);
+		System.out.println("Restored " + restored.size() + " entities in " +
+						   (System.nanoTime() - start) / 1000000 + "ms");
+		System.out.println("First tree : " + restored.get(0));
+		System.out.println("Last tree  : " + restored.get(count - 1));
+		System.out.println("Last villain : " + restored.get(restored.size() - 1));
+	}
+}
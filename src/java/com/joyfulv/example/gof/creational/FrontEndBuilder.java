@@ -15,9 +15,29 @@
 
 package com.joyfulv.example.gof.creational;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Vector;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class FrontEndBuilder {
 	
@@ -33,30 +53,283 @@ public class FrontEndBuilder {
 	
 	/**
 	 * Product - Form
+	 * Immutable and array backed, so one instance is shared by every 
+	 * session of a trader profile. The read-only list views are made
+	 * once, a getter allocates nothing and takes no lock.
 	 * @author Victor.Chan
 	 */
-	static class Form {
-		private List<String> grids = new Vector<String>();
-		private List<String> buttons = new Vector<String>();
-		private List<String> dialogs = new Vector<String>();
+	static final class Form {
+		private final String[] grids;
+		private final String[] buttons;
+		private final String[] dialogs;
 		
-		public void addGrids(List<String> newGrids) { 
-			grids.addAll(newGrids);
+		private final List<String> gridList;
+		private final List<String> buttonList;
+		private final List<String> dialogList;
+		
+		/**
+		 * Every widget of the form in preload order
+		 */
+		private final WidgetDescriptor[] widgets;
+		private final Map<String, WidgetDescriptor> widgetByName;
+		
+		private Form(String[] grids, String[] buttons, String[] dialogs) {
+			this.grids   = grids;
+			this.buttons = buttons;
+			this.dialogs = dialogs;
+			gridList   = Collections.unmodifiableList(Arrays.asList(grids));
+			buttonList = Collections.unmodifiableList(Arrays.asList(buttons));
+			dialogList = Collections.unmodifiableList(Arrays.asList(dialogs));
+			
+			List<WidgetDescriptor> all = new ArrayList<WidgetDescriptor>();
+			addWidgets(all, grids, WidgetKind.GRID);
+			addWidgets(all, dialogs, WidgetKind.DIALOG);
+			addWidgets(all, buttons, WidgetKind.BUTTON);
+			Collections.sort(all, WidgetDescriptor.PRELOAD_ORDER);
+			widgets = new WidgetDescriptor[all.size()];
+			widgetByName = new HashMap<String, WidgetDescriptor>();
+			for (int i = 0; i < widgets.length; i++) {
+				widgets[i] = all.get(i).withIndex(i);
+				widgetByName.put(widgets[i].getName(), widgets[i]);
+			}
 		}
 		
-		public void addButtons(List<String> newButtons) {
-			buttons.addAll(newButtons);
+		private static void addWidgets(List<WidgetDescriptor> all, 
+									   String[] names, WidgetKind kind) {
+			for (String name : names) {
+				all.add(new WidgetDescriptor(name, kind, -1));
+			}
 		}
 		
-		public void addDialogs(List<String> newDialogs) {
-			dialogs.addAll(newDialogs);
+		public List<String> getGrids() { return gridList; }
+		
+		public List<String> getButtons() { return buttonList; }
+		
+		public List<String> getDialogs() { return dialogList; }
+		
+		public int getGridCount() { return grids.length; }
+		
+		public String getGrid(int i) { return grids[i]; }
+		
+		public int getButtonCount() { return buttons.length; }
+		
+		public String getButton(int i) { return buttons[i]; }
+		
+		public int getDialogCount() { return dialogs.length; }
+		
+		public String getDialog(int i) { return dialogs[i]; }
+		
+		public int getWidgetCount() { return widgets.length; }
+		
+		/**
+		 * @param i 0 .. getWidgetCount() - 1, in preload order
+		 */
+		public WidgetDescriptor getWidget(int i) { return widgets[i]; }
+		
+		/**
+		 * @param name
+		 * @return descriptor, null if the form has no such widget
+		 */
+		public WidgetDescriptor getWidget(String name) { return widgetByName.get(name); }
+		
+		/**
+		 * Mutable accumulator of a Form, used once per template
+		 * A builder returning null contributes nothing.
+		 */
+		static final class Composer {
+			private final List<String> grids = new ArrayList<String>();
+			private final List<String> buttons = new ArrayList<String>();
+			private final List<String> dialogs = new ArrayList<String>();
+			
+			public Composer addGrids(List<String> newGrids) { 
+				if (newGrids != null) { grids.addAll(newGrids); }
+				return this;
+			}
+			
+			public Composer addButtons(List<String> newButtons) {
+				if (newButtons != null) { buttons.addAll(newButtons); }
+				return this;
+			}
+			
+			public Composer addDialogs(List<String> newDialogs) {
+				if (newDialogs != null) { dialogs.addAll(newDialogs); }
+				return this;
+			}
+			
+			public Form toForm() {
+				return new Form(grids.toArray(new String[grids.size()]),
+								buttons.toArray(new String[buttons.size()]),
+								dialogs.toArray(new String[dialogs.size()]));
+			}
 		}
+	}
+	
+	/**
+	 * Kind of a widget, in default preload order
+	 * @author Victor.Chan
+	 */
+	enum WidgetKind { GRID, DIALOG, BUTTON }
+	
+	/**
+	 * Description of a widget, the component itself is created lazily
+	 * @author Victor.Chan
+	 */
+	static final class WidgetDescriptor {
+		
+		/**
+		 * Widgets a trader looks at first, preloaded before the others
+		 */
+		private static final List<String> PRELOAD_FIRST = 
+				Arrays.asList("MarketDepthGrid", "QuoteGrid");
 		
-		public List<String> getGrids() { return grids; }
+		static final Comparator<WidgetDescriptor> PRELOAD_ORDER = 
+				new Comparator<WidgetDescriptor>() {
+			@Override
+			public int compare(WidgetDescriptor a, WidgetDescriptor b) {
+				return Integer.compare(a.getPriority(), b.getPriority());
+			}
+		};
 		
-		public List<String> getButtons() { return buttons; }
+		private final String     name;
+		private final WidgetKind kind;
+		private final int        index;
+		
+		WidgetDescriptor(String name, WidgetKind kind, int index) {
+			this.name  = name;
+			this.kind  = kind;
+			this.index = index;
+		}
+		
+		WidgetDescriptor withIndex(int index) {
+			return new WidgetDescriptor(name, kind, index);
+		}
 		
-		public List<String> getDialogs() { return dialogs; }
+		public String getName() { return name; }
+		
+		public WidgetKind getKind() { return kind; }
+		
+		/**
+		 * Position in the form's preload order
+		 */
+		public int getIndex() { return index; }
+		
+		/**
+		 * Lower is loaded earlier
+		 */
+		public int getPriority() {
+			int first = PRELOAD_FIRST.indexOf(name);
+			return first >= 0 ? first : PRELOAD_FIRST.size() + kind.ordinal();
+		}
+		
+		@Override
+		public String toString() { return kind + ":" + name; }
+	}
+	
+	/**
+	 * Creates the component of a widget, e.g. the swing panel
+	 * @author Victor.Chan
+	 */
+	interface WidgetFactory {
+		Object create(WidgetDescriptor descriptor);
+	}
+	
+	/**
+	 * Session view of a shared Form template - every widget is created
+	 * on first access, exactly once even when the UI and the preloader
+	 * ask for it at the same time
+	 * @author Victor.Chan
+	 */
+	static final class LazyForm {
+		private final Form          template;
+		private final WidgetFactory factory;
+		private final AtomicReferenceArray<FutureTask<Object>> components;
+		
+		public LazyForm(Form template, WidgetFactory factory) {
+			this.template = template;
+			this.factory  = factory;
+			this.components = new AtomicReferenceArray<FutureTask<Object>>(
+												template.getWidgetCount());
+		}
+		
+		public Form getTemplate() { return template; }
+		
+		/**
+		 * @param name
+		 * @return the component, created now if needed
+		 * @throws IllegalArgumentException if the form has no such widget
+		 */
+		public Object getComponent(String name) {
+			WidgetDescriptor descriptor = template.getWidget(name);
+			if (descriptor == null) {
+				throw new IllegalArgumentException("No widget " + name);
+			}
+			return getComponent(descriptor.getIndex());
+		}
+		
+		/**
+		 * @param index preload order index of the widget
+		 * @return the component, created now if needed
+		 */
+		public Object getComponent(int index) {
+			FutureTask<Object> task = components.get(index);
+			if (task == null) {
+				final WidgetDescriptor descriptor = template.getWidget(index);
+				FutureTask<Object> created = new FutureTask<Object>(new Callable<Object>() {
+					@Override
+					public Object call() {
+						return factory.create(descriptor);
+					}
+				});
+				if (components.compareAndSet(index, null, created)) {
+					created.run();
+					task = created;
+				} else {
+					task = components.get(index);
+				}
+			}
+			try {
+				return task.get();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted creating " + 
+												template.getWidget(index), ie);
+			} catch (ExecutionException ee) {
+				// let the next access try again
+				components.compareAndSet(index, task, null);
+				throw new IllegalStateException("Failed creating " + 
+												template.getWidget(index), ee.getCause());
+			}
+		}
+		
+		public boolean isMaterialized(int index) {
+			FutureTask<Object> task = components.get(index);
+			return task != null && task.isDone();
+		}
+		
+		/**
+		 * Create every widget in the background, in preload order. 
+		 * With a single thread executor the high priority grids are 
+		 * ready first; a widget accessed before its turn is simply 
+		 * created by the accessing thread.
+		 * @param executor
+		 */
+		public void preload(Executor executor) {
+			for (int i = 0; i < template.getWidgetCount(); i++) {
+				final int index = i;
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						if (components.get(index) == null) {
+							try {
+								getComponent(index);
+							} catch (IllegalStateException ise) {
+								// reported again on foreground access
+							}
+						}
+					}
+				});
+			}
+		}
 	}
 	
 	/**
@@ -136,31 +409,254 @@ public class FrontEndBuilder {
 		}
 	}
 	
+	/**
+	 * Declarative composition of a form - which builders contribute 
+	 * to which part, in merge order. A builder used for several parts
+	 * is run once.
+	 * @author Victor.Chan
+	 */
+	static final class FormRecipe {
+		private final List<FormBuilder> builders = new ArrayList<FormBuilder>();
+		private final List<Integer> grids   = new ArrayList<Integer>();
+		private final List<Integer> buttons = new ArrayList<Integer>();
+		private final List<Integer> dialogs = new ArrayList<Integer>();
+		
+		public FormRecipe grids(FormBuilder... from) { return add(grids, from); }
+		
+		public FormRecipe buttons(FormBuilder... from) { return add(buttons, from); }
+		
+		public FormRecipe dialogs(FormBuilder... from) { return add(dialogs, from); }
+		
+		private FormRecipe add(List<Integer> part, FormBuilder[] from) {
+			for (FormBuilder builder : from) {
+				int index = -1;
+				for (int i = 0; i < builders.size() && index < 0; i++) {
+					if (builders.get(i) == builder) { index = i; }
+				}
+				if (index < 0) {
+					builders.add(builder);
+					index = builders.size() - 1;
+				}
+				part.add(index);
+			}
+			return this;
+		}
+	}
+	
+	/**
+	 * Output of one builder, only the parts a recipe asks for are loaded
+	 */
+	private static final class BuilderOutput {
+		List<String> grids;
+		List<String> buttons;
+		List<String> dialogs;
+	}
+	
+	/**
+	 * Form assembly engine - every builder of a recipe runs as its own
+	 * task on a bounded executor (a builder may load its layout from 
+	 * disk or look up entitlements), the results are merged in recipe
+	 * order so the form does not depend on which builder finished first.
+	 * @author Victor.Chan
+	 */
+	static final class FormAssembler {
+		private final Executor executor;
+		
+		/**
+		 * @param executor runs the builders, should be bounded
+		 */
+		public FormAssembler(Executor executor) {
+			this.executor = executor;
+		}
+		
+		/**
+		 * Fixed pool of daemon threads with a bounded queue; when the 
+		 * queue is full the submitting thread runs the builder itself
+		 * @param threads
+		 * @param queueSize
+		 * @return executor for the assembler
+		 */
+		public static ExecutorService newBoundedExecutor(int threads, int queueSize) {
+			final AtomicInteger count = new AtomicInteger();
+			return new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<Runnable>(queueSize),
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "form-builder-" + count.incrementAndGet());
+							thread.setDaemon(true);
+							return thread;
+						}
+					},
+					new ThreadPoolExecutor.CallerRunsPolicy());
+		}
+		
+		/**
+		 * @param recipe
+		 * @return future of the assembled form
+		 */
+		public CompletableFuture<Form> assembleAsync(final FormRecipe recipe) {
+			int n = recipe.builders.size();
+			final List<CompletableFuture<BuilderOutput>> outputs = 
+					new ArrayList<CompletableFuture<BuilderOutput>>(n);
+			for (int i = 0; i < n; i++) {
+				final FormBuilder builder = recipe.builders.get(i);
+				final boolean grids   = recipe.grids.contains(i);
+				final boolean buttons = recipe.buttons.contains(i);
+				final boolean dialogs = recipe.dialogs.contains(i);
+				outputs.add(CompletableFuture.supplyAsync(new Supplier<BuilderOutput>() {
+					@Override
+					public BuilderOutput get() {
+						BuilderOutput output = new BuilderOutput();
+						if (grids)   { output.grids   = builder.getGrids(); }
+						if (buttons) { output.buttons = builder.getButtons(); }
+						if (dialogs) { output.dialogs = builder.getDialogs(); }
+						return output;
+					}
+				}, executor));
+			}
+			return CompletableFuture.allOf(outputs.toArray(new CompletableFuture<?>[0]))
+					.thenApply(new Function<Void, Form>() {
+						@Override
+						public Form apply(Void done) {
+							Form.Composer composer = new Form.Composer();
+							for (int i : recipe.grids)   { composer.addGrids(outputs.get(i).join().grids); }
+							for (int i : recipe.buttons) { composer.addButtons(outputs.get(i).join().buttons); }
+							for (int i : recipe.dialogs) { composer.addDialogs(outputs.get(i).join().dialogs); }
+							return composer.toForm();
+						}
+					});
+		}
+		
+		/**
+		 * @param recipe
+		 * @return the assembled form
+		 * @throws RuntimeException thrown by a builder
+		 */
+		public Form assemble(FormRecipe recipe) {
+			try {
+				return assembleAsync(recipe).join();
+			} catch (CompletionException ce) {
+				if (ce.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)ce.getCause();
+				}
+				throw ce;
+			}
+		}
+	}
+	
+	/**
+	 * Trader profiles, each composes its form from the builders
+	 * @author Victor.Chan
+	 */
+	enum TraderProfile {
+		EXECUTION_TRADER {
+			@Override
+			FormRecipe recipe() {
+				OrderEntryFormBuilder oeBuilder = new OrderEntryFormBuilder();
+				DerivativeFormBuilder deBuilder = new DerivativeFormBuilder();
+				MarketDataFormBuilder mdBuilder = new MarketDataFormBuilder();
+				
+				return new FormRecipe().grids(oeBuilder, mdBuilder)
+									   .buttons(oeBuilder, deBuilder)
+									   .dialogs(mdBuilder);
+			}
+		},
+		DERIVATIVE_TRADER {
+			@Override
+			FormRecipe recipe() {
+				DerivativeFormBuilder deBuilder = new DerivativeFormBuilder();
+				MarketDataFormBuilder mdBuilder = new MarketDataFormBuilder();
+				
+				return new FormRecipe().grids(deBuilder, mdBuilder)
+									   .buttons(deBuilder)
+									   .dialogs(deBuilder);
+			}
+		},
+		MARKET_DATA_VIEWER {
+			@Override
+			FormRecipe recipe() {
+				MarketDataFormBuilder mdBuilder = new MarketDataFormBuilder();
+				
+				return new FormRecipe().grids(mdBuilder)
+									   .buttons(mdBuilder)
+									   .dialogs(mdBuilder);
+			}
+		};
+		
+		abstract FormRecipe recipe();
+	}
+	
+	/**
+	 * Template cache - each profile's form is composed once, on the
+	 * first getForm of that profile, its builders in parallel; callers
+	 * racing for the same profile wait for the one composition.
+	 * Nothing runs in the class initializer, so touching the class never
+	 * blocks and a tool pays only for the profiles it uses.
+	 * Afterwards a lookup is an array read of a completed future.
+	 * @author Victor.Chan
+	 */
+	static final class FormTemplates {
+		private static final AtomicReferenceArray<CompletableFuture<Form>> templates =
+				new AtomicReferenceArray<CompletableFuture<Form>>(TraderProfile.values().length);
+		
+		private FormTemplates() {}
+		
+		/**
+		 * @param profile
+		 * @return the shared form of the profile
+		 * @throws RuntimeException thrown by a builder, the next call
+		 *         composes the form again
+		 */
+		public static Form getForm(TraderProfile profile) {
+			int slot = profile.ordinal();
+			CompletableFuture<Form> form = templates.get(slot);
+			if (form == null) {
+				CompletableFuture<Form> mine = new CompletableFuture<Form>();
+				if (templates.compareAndSet(slot, null, mine)) {
+					try {
+						mine.complete(compose(profile));
+					} catch (RuntimeException re) {
+						mine.completeExceptionally(re);
+						templates.compareAndSet(slot, mine, null);
+						throw re;
+					}
+				}
+				form = templates.get(slot);
+				if (form == null) { return getForm(profile); }
+			}
+			try {
+				return form.join();
+			} catch (CompletionException ce) {
+				if (ce.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)ce.getCause();
+				}
+				throw ce;
+			}
+		}
+		
+		private static Form compose(TraderProfile profile) {
+			ExecutorService executor = FormAssembler.newBoundedExecutor(
+					Math.min(4, Runtime.getRuntime().availableProcessors()), 64);
+			try {
+				return new FormAssembler(executor).assemble(profile.recipe());
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+	
 	/**
 	 * Driver - ExecutionTraderFormCreater
 	 * @author Victor.Chan
 	 */
 	static class ExecutionTraderFormCreater {
-		static Form etraderForm = new Form();
-		
-		private static void buildForm(){
-			OrderEntryFormBuilder oeBuilder = 
-					new OrderEntryFormBuilder();
-			DerivativeFormBuilder deBuilder = 
-					new DerivativeFormBuilder();
-			MarketDataFormBuilder mdBuilder = 
-					new MarketDataFormBuilder();
-			
-			etraderForm.addGrids(oeBuilder.getGrids());
-			etraderForm.addGrids(mdBuilder.getGrids());
-			etraderForm.addButtons(oeBuilder.getButtons());
-			etraderForm.addButtons(deBuilder.getButtons());
-			etraderForm.addDialogs(mdBuilder.getDialogs());
-		}
 		
+		/**
+		 * @return the shared, immutable form of the execution trader
+		 */
 		public static Form getForm(){
-			buildForm();
-			return etraderForm;
+			return FormTemplates.getForm(TraderProfile.EXECUTION_TRADER);
 		}
 	}
 	
@@ -186,5 +682,112 @@ public class FrontEndBuilder {
 		for (String dialog : instanceForm.getDialogs()) {
 			System.out.println(dialog);
 		}
+		
+		int sessions = 1000000;
+		long start = System.nanoTime();
+		for (int i = 0; i < sessions; i++) {
+			if (ExecutionTraderFormCreater.getForm() != instanceForm) {
+				throw new IllegalStateException("template not shared");
+			}
+		}
+		System.out.println(sessions + " sessions in " + 
+						   (System.nanoTime() - start) / 1000 + "us, form still has " +
+						   instanceForm.getGridCount() + " grids " +
+						   instanceForm.getButtonCount() + " buttons " +
+						   instanceForm.getDialogCount() + " dialogs");
+		for (TraderProfile profile : TraderProfile.values()) {
+			Form form = FormTemplates.getForm(profile);
+			System.out.println(profile + " " + form.getGrids() + " " + 
+							   form.getButtons() + " " + form.getDialogs());
+		}
+		
+		System.out.println("\n===== Lazy widgets =====");
+		// simulated component creation of 20ms per widget
+		WidgetFactory slowFactory = new WidgetFactory() {
+			@Override
+			public Object create(WidgetDescriptor descriptor) {
+				try {
+					TimeUnit.MILLISECONDS.sleep(20);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+				return "[" + descriptor + "]";
+			}
+		};
+		System.out.println("Preload order: " + Arrays.toString(
+				instanceForm.widgets));
+		
+		start = System.nanoTime();
+		LazyForm eager = new LazyForm(instanceForm, slowFactory);
+		for (int i = 0; i < instanceForm.getWidgetCount(); i++) {
+			eager.getComponent(i);
+		}
+		System.out.println("Eager startup: " + (System.nanoTime() - start) / 1000000 + "ms");
+		
+		ExecutorService preloader = Executors.newSingleThreadExecutor();
+		start = System.nanoTime();
+		LazyForm lazy = new LazyForm(instanceForm, slowFactory);
+		lazy.preload(preloader);
+		System.out.println("Lazy startup: " + (System.nanoTime() - start) / 1000000 + "ms");
+		Object depth = lazy.getComponent("MarketDepthGrid");
+		Object quote = lazy.getComponent("QuoteGrid");
+		System.out.println(depth + " " + quote + " ready after " + 
+						   (System.nanoTime() - start) / 1000000 + "ms");
+		preloader.shutdown();
+		try {
+			preloader.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+		System.out.println("All widgets preloaded after " + 
+						   (System.nanoTime() - start) / 1000000 + "ms");
+		
+		System.out.println("\n===== Parallel assembly =====");
+		FormBuilder[] slow = { new SlowFormBuilder(new OrderEntryFormBuilder()),
+							   new SlowFormBuilder(new DerivativeFormBuilder()),
+							   new SlowFormBuilder(new MarketDataFormBuilder()) };
+		FormRecipe recipe = new FormRecipe().grids(slow).buttons(slow).dialogs(slow);
+		
+		start = System.nanoTime();
+		Form sequential = new FormAssembler(new Executor() {
+			@Override
+			public void execute(Runnable command) { command.run(); }
+		}).assemble(recipe);
+		System.out.println("Sequential: " + (System.nanoTime() - start) / 1000000 + "ms");
+		
+		ExecutorService builders = FormAssembler.newBoundedExecutor(3, 16);
+		start = System.nanoTime();
+		Form parallel = new FormAssembler(builders).assemble(recipe);
+		System.out.println("Parallel:   " + (System.nanoTime() - start) / 1000000 + "ms, same form: " +
+						   (sequential.getGrids().equals(parallel.getGrids()) &&
+							sequential.getButtons().equals(parallel.getButtons()) &&
+							sequential.getDialogs().equals(parallel.getDialogs())));
+		builders.shutdown();
+	}
+	
+	/**
+	 * Testing purposes - a builder loading its layout, 30ms per part
+	 */
+	static class SlowFormBuilder extends FormBuilder {
+		private final FormBuilder layout;
+		
+		SlowFormBuilder(FormBuilder layout) { this.layout = layout; }
+		
+		private static void load() {
+			try {
+				TimeUnit.MILLISECONDS.sleep(30);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		@Override
+		List<String> getGrids() { load(); return layout.getGrids(); }
+		
+		@Override
+		List<String> getButtons() { load(); return layout.getButtons(); }
+		
+		@Override
+		List<String> getDialogs() { load(); return layout.getDialogs(); }
 	}
 }
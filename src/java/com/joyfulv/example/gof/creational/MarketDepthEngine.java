@@ -0,0 +1,510 @@
+/*******************************************
+ * Name     : MarketDepthEngine
+ * Function : Conflating market depth engine feeding MarketDepthGrid
+ *            and QuoteGrid
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per symbol depth ladders kept in primitive arrays, updated
+ * incrementally by a single feed thread.
+ *
+ * Updates are conflated: the feed thread changes only its working
+ * ladder and marks the symbol dirty; publish(), called once per UI
+ * frame, copies each dirty ladder into a snapshot buffer. Only the
+ * latest state of a symbol reaches the grids, however many updates
+ * arrived within the frame.
+ *
+ * Snapshots go to the UI thread through a wait-free buffer exchange per
+ * symbol. The writer fills its back buffer and swaps it with the
+ * exchange slot; the reader swaps its front buffer with the exchange
+ * slot when that holds something fresh. The slot index and the fresh
+ * bit live in one int, so each swap is a single getAndSet. Neither side
+ * ever touches a buffer the other owns, nothing is locked and nothing
+ * is allocated once the engine is built.
+ *
+ * Threading: one feed thread (onBook, onTrade, publish) and one UI
+ * thread (poll, latest) - the repaint thread of the grids.
+ * Prices are in minor units, see CoRAWSItemInfoReqSvr.Money.
+ * @author Victor.Chan
+ */
+public class MarketDepthEngine {
+
+	public enum Side { BID, ASK }
+
+	private static final int FRESH = 4;
+	private static final int INDEX = 3;
+
+	private final String[] symbols;
+	private final Map<String, Integer> symbolIds = new HashMap<String, Integer>();
+	private final int depth;
+
+	// feed thread state
+	private final Ladder[]  working;
+	private final boolean[] dirty;
+	private final int[]     dirtyList;
+	private int             dirtyCount;
+	private final int[]     backIndex;
+	private long            updates;
+	private long            published;
+
+	// three buffers per symbol: back (feed), exchange, front (UI)
+	private final DepthSnapshot[][] buffers;
+	private final AtomicIntegerArray exchange;
+
+	// UI thread state
+	private final int[] frontIndex;
+
+	/**
+	 * @param symbols instruments, the id of a symbol is its index
+	 * @param depth   price levels kept per side
+	 */
+	public MarketDepthEngine(String[] symbols, int depth) {
+		this.symbols = symbols.clone();
+		this.depth = depth;
+		int n = symbols.length;
+		working   = new Ladder[n];
+		dirty     = new boolean[n];
+		dirtyList = new int[n];
+		backIndex = new int[n];
+		frontIndex = new int[n];
+		buffers   = new DepthSnapshot[n][3];
+		exchange  = new AtomicIntegerArray(n);
+		for (int s = 0; s < n; s++) {
+			symbolIds.put(symbols[s], s);
+			working[s] = new Ladder(depth);
+			for (int b = 0; b < 3; b++) {
+				buffers[s][b] = new DepthSnapshot(symbols[s], depth);
+			}
+			backIndex[s] = 0;
+			exchange.set(s, 1);
+			frontIndex[s] = 2;
+		}
+	}
+
+	public int getSymbolCount() { return symbols.length; }
+
+	/**
+	 * @param symbol
+	 * @return id of the symbol, -1 if unknown
+	 */
+	public int getSymbolId(String symbol) {
+		Integer id = symbolIds.get(symbol);
+		return id == null ? -1 : id;
+	}
+
+	/*
+	 * ============ Feed thread =========================
+	 */
+
+	/**
+	 * Incremental depth update - set the quantity at a price level,
+	 * quantity 0 removes the level
+	 * @param symbolId
+	 * @param side
+	 * @param price      minor units
+	 * @param quantity
+	 * @param eventNanos System.nanoTime() of the update at the source
+	 */
+	public void onBook(int symbolId, Side side, long price, long quantity, long eventNanos) {
+		Ladder ladder = working[symbolId];
+		if (side == Side.BID) {
+			ladder.bidLevels = setLevel(ladder.bidPx, ladder.bidQty, ladder.bidLevels,
+										price, quantity, true);
+		} else {
+			ladder.askLevels = setLevel(ladder.askPx, ladder.askQty, ladder.askLevels,
+										price, quantity, false);
+		}
+		touch(symbolId, ladder, eventNanos);
+	}
+
+	/**
+	 * Trade print, shown as last price on the QuoteGrid
+	 * @param symbolId
+	 * @param price      minor units
+	 * @param quantity
+	 * @param eventNanos System.nanoTime() of the trade at the source
+	 */
+	public void onTrade(int symbolId, long price, long quantity, long eventNanos) {
+		Ladder ladder = working[symbolId];
+		ladder.lastPx = price;
+		ladder.lastQty = quantity;
+		ladder.volume += quantity;
+		touch(symbolId, ladder, eventNanos);
+	}
+
+	private void touch(int symbolId, Ladder ladder, long eventNanos) {
+		ladder.updateNanos = eventNanos;
+		ladder.updates++;
+		updates++;
+		if (!dirty[symbolId]) {
+			dirty[symbolId] = true;
+			dirtyList[dirtyCount++] = symbolId;
+		}
+	}
+
+	/**
+	 * Sorted insert / replace / delete of a level, bids descending and
+	 * asks ascending; the worst level falls off when the side is full
+	 * @return new number of levels
+	 */
+	private int setLevel(long[] px, long[] qty, int levels,
+						 long price, long quantity, boolean descending) {
+		int i = 0;
+		while (i < levels && (descending ? px[i] > price : px[i] < price)) { i++; }
+		boolean found = i < levels && px[i] == price;
+		if (quantity == 0) {
+			if (found) {
+				System.arraycopy(px,  i + 1, px,  i, levels - i - 1);
+				System.arraycopy(qty, i + 1, qty, i, levels - i - 1);
+				levels--;
+			}
+			return levels;
+		}
+		if (found) {
+			qty[i] = quantity;
+			return levels;
+		}
+		if (i >= depth) { return levels; }
+		int move = Math.min(levels, depth - 1) - i;
+		System.arraycopy(px,  i, px,  i + 1, move);
+		System.arraycopy(qty, i, qty, i + 1, move);
+		px[i] = price;
+		qty[i] = quantity;
+		return Math.min(levels + 1, depth);
+	}
+
+	/**
+	 * Publish the latest state of every symbol changed since the last
+	 * frame. Called by the feed thread once per frame.
+	 * @return number of symbols published
+	 */
+	public int publish() {
+		int count = dirtyCount;
+		for (int d = 0; d < count; d++) {
+			int s = dirtyList[d];
+			dirty[s] = false;
+			DepthSnapshot snapshot = buffers[s][backIndex[s]];
+			snapshot.copyFrom(working[s]);
+			backIndex[s] = exchange.getAndSet(s, backIndex[s] | FRESH) & INDEX;
+		}
+		dirtyCount = 0;
+		published += count;
+		return count;
+	}
+
+	public long getUpdates() { return updates; }
+
+	public long getPublished() { return published; }
+
+	/*
+	 * ============ UI thread =========================
+	 */
+
+	/**
+	 * Take the newest snapshot of a symbol if one was published since
+	 * the last call
+	 * @param symbolId
+	 * @return the snapshot, valid until the next poll/latest of the
+	 *         symbol; null if nothing new
+	 */
+	public DepthSnapshot poll(int symbolId) {
+		if ((exchange.get(symbolId) & FRESH) == 0) {
+			return null;
+		}
+		frontIndex[symbolId] = exchange.getAndSet(symbolId, frontIndex[symbolId]) & INDEX;
+		return buffers[symbolId][frontIndex[symbolId]];
+	}
+
+	/**
+	 * Newest snapshot of a symbol, the previous one if nothing new
+	 * @param symbolId
+	 * @return the snapshot, valid until the next poll/latest of the symbol
+	 */
+	public DepthSnapshot latest(int symbolId) {
+		DepthSnapshot fresh = poll(symbolId);
+		return fresh != null ? fresh : buffers[symbolId][frontIndex[symbolId]];
+	}
+
+	/**
+	 * Grid fed once per frame with the symbols that changed
+	 * @author Victor.Chan
+	 */
+	public interface GridConsumer {
+		void onSnapshot(DepthSnapshot snapshot);
+	}
+
+	/**
+	 * Hand every fresh snapshot to the grids, one UI frame
+	 * @param grids e.g. MarketDepthGrid and QuoteGrid
+	 * @return number of symbols refreshed
+	 */
+	public int drainTo(GridConsumer... grids) {
+		int refreshed = 0;
+		for (int s = 0; s < symbols.length; s++) {
+			DepthSnapshot snapshot = poll(s);
+			if (snapshot != null) {
+				for (GridConsumer grid : grids) { grid.onSnapshot(snapshot); }
+				refreshed++;
+			}
+		}
+		return refreshed;
+	}
+
+	/**
+	 * Working ladder of a symbol, feed thread only
+	 */
+	private static class Ladder {
+		final long[] bidPx, bidQty, askPx, askQty;
+		int  bidLevels, askLevels;
+		long lastPx, lastQty, volume;
+		long updateNanos;
+		long updates;
+
+		Ladder(int depth) {
+			bidPx = new long[depth];
+			bidQty = new long[depth];
+			askPx = new long[depth];
+			askQty = new long[depth];
+		}
+	}
+
+	/**
+	 * Published state of a symbol as seen by the grids
+	 * @author Victor.Chan
+	 */
+	public static final class DepthSnapshot {
+		private final String symbol;
+		private final long[] bidPx, bidQty, askPx, askQty;
+		private int  bidLevels, askLevels;
+		private long lastPx, lastQty, volume;
+		private long updateNanos;
+		private long updates;
+
+		DepthSnapshot(String symbol, int depth) {
+			this.symbol = symbol;
+			bidPx = new long[depth];
+			bidQty = new long[depth];
+			askPx = new long[depth];
+			askQty = new long[depth];
+		}
+
+		void copyFrom(Ladder ladder) {
+			bidLevels = ladder.bidLevels;
+			askLevels = ladder.askLevels;
+			System.arraycopy(ladder.bidPx,  0, bidPx,  0, bidLevels);
+			System.arraycopy(ladder.bidQty, 0, bidQty, 0, bidLevels);
+			System.arraycopy(ladder.askPx,  0, askPx,  0, askLevels);
+			System.arraycopy(ladder.askQty, 0, askQty, 0, askLevels);
+			lastPx = ladder.lastPx;
+			lastQty = ladder.lastQty;
+			volume = ladder.volume;
+			updateNanos = ladder.updateNanos;
+			updates = ladder.updates;
+		}
+
+		public String getSymbol() { return symbol; }
+
+		public int getLevels(Side side) { return side == Side.BID ? bidLevels : askLevels; }
+
+		public long getPrice(Side side, int level) {
+			return side == Side.BID ? bidPx[level] : askPx[level];
+		}
+
+		public long getQuantity(Side side, int level) {
+			return side == Side.BID ? bidQty[level] : askQty[level];
+		}
+
+		public long getBestBid() { return bidLevels > 0 ? bidPx[0] : 0; }
+
+		public long getBestAsk() { return askLevels > 0 ? askPx[0] : 0; }
+
+		public long getLastPrice() { return lastPx; }
+
+		public long getLastQuantity() { return lastQty; }
+
+		public long getVolume() { return volume; }
+
+		/**
+		 * Source time of the newest update included
+		 */
+		public long getUpdateNanos() { return updateNanos; }
+
+		/**
+		 * Updates of the symbol so far, the difference between two
+		 * snapshots is the number of updates conflated into one frame
+		 */
+		public long getUpdates() { return updates; }
+
+		@Override
+		public String toString() {
+			return symbol + " " + getBestBid() + " x " + getBestAsk() +
+				   " last:" + lastPx + " vol:" + volume +
+				   " levels:" + bidLevels + "/" + askLevels;
+		}
+	}
+
+	/**
+	 * Synthetic feed - random walk mid price per symbol, bursts of
+	 * depth updates around it and occasional trades
+	 * @author Victor.Chan
+	 */
+	public static class SyntheticFeed {
+		private final MarketDepthEngine engine;
+		private final Random random;
+		private final long[] mid;
+		private final long   tick;
+
+		public SyntheticFeed(MarketDepthEngine engine, long seed) {
+			this.engine = engine;
+			this.random = new Random(seed);
+			this.tick = 1;
+			mid = new long[engine.getSymbolCount()];
+			for (int s = 0; s < mid.length; s++) {
+				mid[s] = 1000 + random.nextInt(100000);
+			}
+		}
+
+		/**
+		 * Generate a burst of updates on one symbol
+		 * @return number of updates sent
+		 */
+		public int burst() {
+			int s = random.nextInt(mid.length);
+			int size = 1 + random.nextInt(16);
+			long now = System.nanoTime();
+			if (random.nextInt(4) == 0) {
+				// move the mid and pull the level it crosses
+				if (random.nextBoolean() || mid[s] <= (engine.depth + 2) * tick) {
+					mid[s] += tick;
+					engine.onBook(s, Side.ASK, mid[s], 0, now);
+				} else {
+					mid[s] -= tick;
+					engine.onBook(s, Side.BID, mid[s], 0, now);
+				}
+				size++;
+			}
+			for (int i = 0; i < size; i++) {
+				int level = 1 + random.nextInt(engine.depth);
+				boolean bid = random.nextBoolean();
+				long price = bid ? mid[s] - level * tick : mid[s] + level * tick;
+				long quantity = random.nextInt(8) == 0 ? 0 : 100 * (1 + random.nextInt(50));
+				engine.onBook(s, bid ? Side.BID : Side.ASK, price, quantity, now);
+			}
+			if (random.nextInt(8) == 0) {
+				engine.onTrade(s, mid[s], 100 * (1 + random.nextInt(10)), now);
+				size++;
+			}
+			return size;
+		}
+	}
+
+	/**
+	 * Embedded testing module - synthetic feed at full speed, publish
+	 * and UI frames at 60 per second, two grid consumers
+	 * @param args [symbols] [depth] [seconds]
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int symbolCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int depth       = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int seconds     = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+		final long frameNanos = TimeUnit.SECONDS.toNanos(1) / 60;
+
+		String[] symbols = new String[symbolCount];
+		for (int s = 0; s < symbolCount; s++) { symbols[s] = "SYM" + s; }
+		final MarketDepthEngine engine = new MarketDepthEngine(symbols, depth);
+		final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+		Thread feed = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				SyntheticFeed generator = new SyntheticFeed(engine, 42);
+				long nextFrame = System.nanoTime() + frameNanos;
+				long now;
+				while ((now = System.nanoTime()) < end) {
+					for (int i = 0; i < 64; i++) { generator.burst(); }
+					if (now >= nextFrame) {
+						engine.publish();
+						nextFrame += frameNanos;
+					}
+				}
+				engine.publish();
+			}
+		}, "market-feed");
+		feed.start();
+
+		// UI thread: MarketDepthGrid renders the ladder, QuoteGrid top of book
+		final long[] latency = new long[1 << 22];
+		final int[] samples = new int[1];
+		final long[] checksum = new long[1];
+		GridConsumer marketDepthGrid = new GridConsumer() {
+			@Override
+			public void onSnapshot(DepthSnapshot snapshot) {
+				for (int l = 0; l < snapshot.getLevels(Side.BID); l++) {
+					checksum[0] += snapshot.getQuantity(Side.BID, l);
+				}
+				for (int l = 0; l < snapshot.getLevels(Side.ASK); l++) {
+					checksum[0] += snapshot.getQuantity(Side.ASK, l);
+				}
+			}
+		};
+		GridConsumer quoteGrid = new GridConsumer() {
+			@Override
+			public void onSnapshot(DepthSnapshot snapshot) {
+				checksum[0] += snapshot.getBestBid() + snapshot.getBestAsk() + snapshot.getLastPrice();
+				if (samples[0] < latency.length) {
+					latency[samples[0]++] = System.nanoTime() - snapshot.getUpdateNanos();
+				}
+			}
+		};
+		long frames = 0, refreshed = 0, frameWork = 0;
+		long start = System.nanoTime();
+		while (System.nanoTime() < end) {
+			long t = System.nanoTime();
+			refreshed += engine.drainTo(marketDepthGrid, quoteGrid);
+			frameWork += System.nanoTime() - t;
+			frames++;
+			LockSupport.parkNanos(frameNanos);
+		}
+		feed.join();
+		long elapsed = System.nanoTime() - start;
+
+		long[] sorted = Arrays.copyOf(latency, samples[0]);
+		Arrays.sort(sorted);
+		System.out.println(String.format("%d symbols, depth %d, %d UI frames",
+										 symbolCount, depth, frames));
+		System.out.println(String.format("feed: %.0f updates/s, published %.0f snapshots/s, " +
+										 "conflation %.1f updates per snapshot",
+										 engine.getUpdates() * 1e9 / elapsed,
+										 engine.getPublished() * 1e9 / elapsed,
+										 (double)engine.getUpdates() / Math.max(1, engine.getPublished())));
+		System.out.println(String.format("UI: %d symbol refreshes, %.1f us per frame",
+										 refreshed, frameWork / 1000.0 / Math.max(1, frames)));
+		if (sorted.length > 0) {
+			System.out.println(String.format("update to grid latency ms p50:%.2f p99:%.2f max:%.2f",
+					sorted[sorted.length / 2] / 1e6,
+					sorted[(int)(sorted.length * 0.99)] / 1e6,
+					sorted[sorted.length - 1] / 1e6));
+		}
+		System.out.println(engine.latest(0) + " checksum:" + checksum[0]);
+	}
+}
@@ -19,6 +19,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.joyfulv.example.gof.jfr.OrderCreatedEvent;
+
 public class OrderFactory {
 	private static OrderFactory orderFactory = new OrderFactory();
 	
@@ -47,11 +49,41 @@ public class OrderFactory {
 	 */
 	static abstract class Order {
 		String orderType;
+		
+		/**
+		 * Ticket details, see setTicket; price in minor units,
+		 * 0 for an order without limit price
+		 */
+		int     account;
+		int     instrument;
+		boolean buy;
+		long    quantity;
+		long    price;
+		
 		public Order(String type){ 
 			this.orderType = type;
 			System.out.println("creating "+orderType+" order");
 		}
 		abstract Order createOrder();
+		
+		/**
+		 * Fill in the ticket of a created order
+		 * @param account
+		 * @param instrument
+		 * @param buy
+		 * @param quantity
+		 * @param price minor units, 0 for a market order
+		 * @return this order
+		 */
+		public Order setTicket(int account, int instrument, boolean buy, 
+							   long quantity, long price){
+			this.account = account;
+			this.instrument = instrument;
+			this.buy = buy;
+			this.quantity = quantity;
+			this.price = price;
+			return this;
+		}
 	}
 	
 	/**
@@ -140,7 +172,15 @@ public class OrderFactory {
 	public Order createOrder(String orderType){
 		if (RegisteredOrderTypeMap.containsKey(orderType)){
 			Order order = RegisteredOrderTypeMap.get(orderType);
-			return order.createOrder();
+			OrderCreatedEvent event = new OrderCreatedEvent();
+			event.begin();
+			Order created = order.createOrder();
+			event.end();
+			if (event.shouldCommit()) {
+				event.orderType = orderType;
+				event.commit();
+			}
+			return created;
 		} else {
 			return null;
 		}
@@ -176,6 +216,8 @@ public class OrderFactory {
 								   InvocationTargetException, NoSuchMethodException{
 		
 		if (RegisteredOrderTypeByReflectionMap.containsKey(orderType)){
+			OrderCreatedEvent event = new OrderCreatedEvent();
+			event.begin();
 			try {
 				Class<? extends Order> orderClass = RegisteredOrderTypeByReflectionMap.get(orderType);
 				
@@ -197,6 +239,13 @@ public class OrderFactory {
 				ie.printStackTrace();
 			} catch (IllegalAccessException iae) {
 				iae.printStackTrace();
+			} finally {
+				event.end();
+				if (event.shouldCommit()) {
+					event.orderType = orderType;
+					event.reflective = true;
+					event.commit();
+				}
 			}
 			return null;
 		} else {
@@ -204,6 +253,28 @@ public class OrderFactory {
 		}
 	}
 	
+	/**
+	 * Reflection-free counterpart of createOrderFromReflection for the
+	 * order types of the generated OrderTypeTable, nothing to register
+	 * @param orderType
+	 * @param parameters constructor parameters, null for the default one
+	 * @return new order object, null if the type is not in the table
+	 * @throws IllegalArgumentException no constructor takes the parameters
+	 */
+	public Order createOrderFromTable(String orderType, Object[] parameters){
+		OrderCreatedEvent event = new OrderCreatedEvent();
+		event.begin();
+		try {
+			return OrderTypeTable.create(orderType, parameters);
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.orderType = orderType;
+				event.commit();
+			}
+		}
+	}
+	
 	/**
 	 * Embedded testing module
 	 * @param args
@@ -252,5 +323,10 @@ public class OrderFactory {
 			e.printStackTrace();
 		}
 		
+		System.out.println("\n===== By generated table ====");
+		
+		Order lot = of.createOrderFromTable("limit", null);
+		Order lotwp = of.createOrderFromTable("limit", new Object[] { Double.valueOf(10.99) });
+		Order mot = of.createOrderFromTable("market", new Object[] { "OTC-PINK", Boolean.TRUE });
 	}
 }
@@ -0,0 +1,54 @@
+/*******************************************
+ * Name     : OrderTypeTable
+ * Function : Generated by OrderTypeTableGenerator - do not edit
+ * Author   : Victor@JoyfulVillage
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+/**
+ * Static order type table, reflection-free counterpart of
+ * registerOrderTypeByReflection / createOrderFromReflection
+ *   limit = OrderFactory.LimitOrder
+ *   market = OrderFactory.MarketOrder
+ * @author Victor.Chan
+ */
+final class OrderTypeTable {
+
+	static final String[] ORDER_TYPES = { "limit", "market" };
+
+	private OrderTypeTable() {}
+
+	/**
+	 * @param orderType
+	 * @param parameters constructor parameters, null for none
+	 * @return new order object, null if the type is not in the table
+	 * @throws IllegalArgumentException no constructor takes the parameters
+	 */
+	static OrderFactory.Order create(String orderType, Object[] parameters) {
+		int count = (parameters == null) ? 0 : parameters.length;
+		switch (orderType) {
+			case "limit":
+				if (count == 0) {
+					return new OrderFactory.LimitOrder();
+				}
+				if (count == 1 && parameters[0] instanceof Double) {
+					return new OrderFactory.LimitOrder((Double)parameters[0]);
+				}
+				break;
+			case "market":
+				if (count == 0) {
+					return new OrderFactory.MarketOrder();
+				}
+				if (count == 2 && parameters[0] instanceof String && parameters[1] instanceof Boolean) {
+					return new OrderFactory.MarketOrder((String)parameters[0], (Boolean)parameters[1]);
+				}
+				break;
+			default:
+				return null;
+		}
+		throw new IllegalArgumentException("No " + orderType + 
+				" order constructor for " + count + " parameters");
+	}
+}
@@ -0,0 +1,218 @@
+/*******************************************
+ * Name     : OrderTypeTableGenerator
+ * Function : Generates the static order type table of OrderFactory
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes OrderTypeTable.java: a switch over the order types with a
+ * direct constructor call per constructor of the order class. What
+ * registerOrderTypeByReflection / createOrderFromReflection look up
+ * on every call is resolved here once, at build time; the generated
+ * class needs no registration and no reflection at run time.
+ *
+ * Constructors are matched on parameter count and instanceof of each
+ * parameter, ordered by parameter count, then by the parameter type
+ * names: getDeclaredConstructors() has no defined order, so this keeps
+ * the generated table the same on every run. Constructors taking
+ * primitives are skipped, the reflective path cannot call them either
+ * (parameter.getClass() is never primitive). Lines end with the
+ * platform line separator.
+ *
+ * Regenerate after adding an order type or constructor:
+ *   java ...OrderTypeTableGenerator src/java/.../OrderTypeTable.java
+ *        [type=class ...]
+ * @author Victor.Chan
+ */
+public class OrderTypeTableGenerator {
+
+	static final String PACKAGE = OrderTypeTableGenerator.class.getPackage().getName();
+
+	/**
+	 * Order types of the table when none are given
+	 */
+	static Map<String, Class<?>> defaultOrderTypes() {
+		Map<String, Class<?>> types = new LinkedHashMap<String, Class<?>>();
+		types.put("limit",  OrderFactory.LimitOrder.class);
+		types.put("market", OrderFactory.MarketOrder.class);
+		return types;
+	}
+
+	/**
+	 * @param orderTypes order type to order class, in table order
+	 * @return source of OrderTypeTable
+	 */
+	public static String generate(Map<String, Class<?>> orderTypes) {
+		StringWriter source = new StringWriter();
+		PrintWriter out = new PrintWriter(source);
+
+		out.println("/*******************************************");
+		out.println(" * Name     : OrderTypeTable");
+		out.println(" * Function : Generated by OrderTypeTableGenerator - do not edit");
+		out.println(" * Author   : Victor@JoyfulVillage");
+		out.println(" *");
+		out.println(" */");
+		out.println();
+		out.println("package " + PACKAGE + ";");
+		out.println();
+		out.println("/**");
+		out.println(" * Static order type table, reflection-free counterpart of");
+		out.println(" * registerOrderTypeByReflection / createOrderFromReflection");
+		for (Map.Entry<String, Class<?>> type : orderTypes.entrySet()) {
+			out.println(" *   " + type.getKey() + " = " + sourceName(type.getValue()));
+		}
+		out.println(" * @author Victor.Chan");
+		out.println(" */");
+		out.println("final class OrderTypeTable {");
+		out.println();
+		StringBuilder names = new StringBuilder();
+		for (String type : orderTypes.keySet()) {
+			names.append(names.length() == 0 ? "" : ", ").append('"').append(type).append('"');
+		}
+		out.println("\tstatic final String[] ORDER_TYPES = { " + names + " };");
+		out.println();
+		out.println("\tprivate OrderTypeTable() {}");
+		out.println();
+		out.println("\t/**");
+		out.println("\t * @param orderType");
+		out.println("\t * @param parameters constructor parameters, null for none");
+		out.println("\t * @return new order object, null if the type is not in the table");
+		out.println("\t * @throws IllegalArgumentException no constructor takes the parameters");
+		out.println("\t */");
+		out.println("\tstatic OrderFactory.Order create(String orderType, Object[] parameters) {");
+		out.println("\t\tint count = (parameters == null) ? 0 : parameters.length;");
+		out.println("\t\tswitch (orderType) {");
+		for (Map.Entry<String, Class<?>> type : orderTypes.entrySet()) {
+			out.println("\t\t\tcase \"" + type.getKey() + "\":");
+			for (Constructor<?> constructor : constructors(type.getValue())) {
+				out.println("\t\t\t\tif (" + condition(constructor) + ") {");
+				out.println("\t\t\t\t\treturn new " + sourceName(type.getValue()) + 
+							"(" + arguments(constructor) + ");");
+				out.println("\t\t\t\t}");
+			}
+			out.println("\t\t\t\tbreak;");
+		}
+		out.println("\t\t\tdefault:");
+		out.println("\t\t\t\treturn null;");
+		out.println("\t\t}");
+		out.println("\t\tthrow new IllegalArgumentException(\"No \" + orderType + ");
+		out.println("\t\t\t\t\" order constructor for \" + count + \" parameters\");");
+		out.println("\t}");
+		out.println("}");
+		out.flush();
+		return source.toString();
+	}
+
+	/**
+	 * Callable constructors, fewest parameters first, then by the
+	 * names of the parameter types
+	 */
+	private static List<Constructor<?>> constructors(Class<?> orderClass) {
+		List<Constructor<?>> constructors = new ArrayList<Constructor<?>>();
+		for (Constructor<?> constructor : orderClass.getDeclaredConstructors()) {
+			if (Modifier.isPrivate(constructor.getModifiers())) { continue; }
+			boolean boxed = true;
+			for (Class<?> parameter : constructor.getParameterTypes()) {
+				boxed &= !parameter.isPrimitive();
+			}
+			if (boxed) { constructors.add(constructor); }
+		}
+		Collections.sort(constructors, new Comparator<Constructor<?>>() {
+			@Override
+			public int compare(Constructor<?> a, Constructor<?> b) {
+				int byCount = Integer.compare(a.getParameterCount(), b.getParameterCount());
+				if (byCount != 0) { return byCount; }
+				Class<?>[] pa = a.getParameterTypes();
+				Class<?>[] pb = b.getParameterTypes();
+				for (int i = 0; i < pa.length; i++) {
+					int byName = pa[i].getName().compareTo(pb[i].getName());
+					if (byName != 0) { return byName; }
+				}
+				return 0;
+			}
+		});
+		return constructors;
+	}
+
+	private static String condition(Constructor<?> constructor) {
+		Class<?>[] parameters = constructor.getParameterTypes();
+		StringBuilder condition = new StringBuilder("count == " + parameters.length);
+		for (int i = 0; i < parameters.length; i++) {
+			condition.append(" && parameters[").append(i).append("] instanceof ")
+					 .append(sourceName(parameters[i]));
+		}
+		return condition.toString();
+	}
+
+	private static String arguments(Constructor<?> constructor) {
+		Class<?>[] parameters = constructor.getParameterTypes();
+		StringBuilder arguments = new StringBuilder();
+		for (int i = 0; i < parameters.length; i++) {
+			arguments.append(i == 0 ? "" : ", ").append('(').append(sourceName(parameters[i]))
+					 .append(")parameters[").append(i).append(']');
+		}
+		return arguments.toString();
+	}
+
+	/**
+	 * Class name as written in OrderTypeTable: without the package for
+	 * this package and java.lang
+	 */
+	private static String sourceName(Class<?> type) {
+		String name = type.getCanonicalName();
+		String pkg = type.getPackage().getName();
+		if (pkg.equals(PACKAGE) || pkg.equals("java.lang")) {
+			return name.substring(pkg.length() + 1);
+		}
+		return name;
+	}
+
+	/**
+	 * Generator entry point
+	 * @param args output file or - for stdout, [type=class ...]
+	 */
+	public static void main(String[] args) throws IOException, ClassNotFoundException {
+		Map<String, Class<?>> orderTypes = defaultOrderTypes();
+		if (args.length > 1) {
+			orderTypes.clear();
+			for (String arg : Arrays.asList(args).subList(1, args.length)) {
+				String[] type = arg.split("=", 2);
+				orderTypes.put(type[0], Class.forName(type[1]));
+			}
+		}
+		String source = generate(orderTypes);
+		if (args.length == 0 || args[0].equals("-")) {
+			System.out.print(source);
+		} else {
+			Files.write(Paths.get(args[0]), source.getBytes(StandardCharsets.UTF_8));
+			System.out.println("wrote " + args[0] + " " + orderTypes.keySet());
+		}
+	}
+}
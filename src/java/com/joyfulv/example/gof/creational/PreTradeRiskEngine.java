@@ -0,0 +1,702 @@
+/*******************************************
+ * Name     : PreTradeRiskEngine
+ * Function : Pre-trade risk checks of the orders from OrderFactory,
+ *            chain of responsibility specialized for orders
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.joyfulv.example.gof.creational.OrderFactory.LimitOrder;
+import com.joyfulv.example.gof.creational.OrderFactory.Order;
+
+/**
+ * Risk checks are chained with setSuccessor like the handlers of
+ * CoRAWSItemInfoReqSvr; the first check that rejects ends the chain.
+ * The chain is compiled into an array, so an order runs a plain loop
+ * over the checks.
+ *
+ * A batch of orders is kept in columns (one primitive array per field)
+ * and evaluated check by check: each check runs one tight loop over the
+ * orders still accepted, instead of every order walking the chain.
+ *
+ * Checks:
+ * - quantity: strictly positive, the side is given by buy
+ * - price: 0 for an order without limit, positive otherwise
+ * - price band: limit price within +/- band of the reference price,
+ *   compared without a multiplication that could overflow
+ * - max notional: quantity * price within the account limit, compared
+ *   without the multiplication so that it cannot overflow
+ * - no order passes the price band or the notional check of an
+ *   instrument whose reference price was never set
+ * - position: net position per account and instrument within the
+ *   account limit, reserved atomically on accept
+ *
+ * The position check changes state, it is kept last in the chain so an
+ * order rejected by another check never reserves a position. The
+ * reservation of an accepted order is given back with release once the
+ * order is cancelled or rejected downstream.
+ * @author Victor.Chan
+ */
+public class PreTradeRiskEngine {
+
+	/**
+	 * Outcome of the checks, stored as ordinal in the batch result column
+	 * @author Victor.Chan
+	 */
+	public enum RiskResult { ACCEPTED, INVALID_QUANTITY, INVALID_PRICE, NO_REFERENCE, PRICE_BAND, MAX_NOTIONAL, POSITION_LIMIT }
+
+	/**
+	 * Orders of a batch in columns, fixed capacity
+	 * @author Victor.Chan
+	 */
+	public static class OrderBatch {
+		final int[]     account;
+		final int[]     instrument;
+		final boolean[] buy;
+		final long[]    quantity;
+		final long[]    price;
+		final byte[]    result;
+		int size;
+
+		public OrderBatch(int capacity) {
+			account    = new int[capacity];
+			instrument = new int[capacity];
+			buy        = new boolean[capacity];
+			quantity   = new long[capacity];
+			price      = new long[capacity];
+			result     = new byte[capacity];
+		}
+
+		/**
+		 * @throws IllegalStateException if the batch is full
+		 */
+		public void add(int account, int instrument, boolean buy, long quantity, long price) {
+			if (size == result.length) {
+				throw new IllegalStateException("Batch full, capacity " + result.length);
+			}
+			this.account[size] = account;
+			this.instrument[size] = instrument;
+			this.buy[size] = buy;
+			this.quantity[size] = quantity;
+			this.price[size] = price;
+			result[size] = 0;
+			size++;
+		}
+
+		public void add(Order order) {
+			add(order.account, order.instrument, order.buy, order.quantity, order.price);
+		}
+
+		public void clear() { size = 0; }
+
+		public int size() { return size; }
+
+		public boolean isFull() { return size == result.length; }
+
+		public RiskResult getResult(int i) { return RESULTS[result[i]]; }
+	}
+
+	private static final RiskResult[] RESULTS = RiskResult.values();
+	private static final byte ACCEPTED = (byte)RiskResult.ACCEPTED.ordinal();
+
+	/**
+	 * The base risk check, specialized handler of an order
+	 * @author Victor.Chan
+	 */
+	static abstract class RiskCheck {
+		protected RiskCheck successor;
+
+		/**
+		 * @return ACCEPTED or the reject reason
+		 */
+		protected abstract RiskResult check(int account, int instrument, boolean buy,
+											long quantity, long price);
+
+		/**
+		 * Run the check over every still accepted order of the batch,
+		 * overridden by checks with a tighter loop
+		 * @param batch
+		 * @return number of orders rejected
+		 */
+		protected int checkBatch(OrderBatch batch) {
+			int rejected = 0;
+			for (int i = 0; i < batch.size; i++) {
+				if (batch.result[i] != ACCEPTED) { continue; }
+				RiskResult r = check(batch.account[i], batch.instrument[i], batch.buy[i],
+									 batch.quantity[i], batch.price[i]);
+				if (r != RiskResult.ACCEPTED) {
+					batch.result[i] = (byte)r.ordinal();
+					rejected++;
+				}
+			}
+			return rejected;
+		}
+
+		public void setSuccessor(RiskCheck successor) {
+			if (successor == null) { throw new IllegalArgumentException("null successor"); }
+			this.successor = successor;
+		}
+	}
+
+	/**
+	 * Quantity must be positive: a zero quantity would pass every
+	 * limit, a negative one would reverse the side of the position
+	 * @author Victor.Chan
+	 */
+	static class QuantityCheck extends RiskCheck {
+
+		@Override
+		protected RiskResult check(int account, int instrument, boolean buy,
+								   long quantity, long price) {
+			return quantity > 0 ? RiskResult.ACCEPTED : RiskResult.INVALID_QUANTITY;
+		}
+	}
+
+	/**
+	 * Price must not be negative, 0 stands for an order without limit
+	 * @author Victor.Chan
+	 */
+	static class PriceCheck extends RiskCheck {
+
+		@Override
+		protected RiskResult check(int account, int instrument, boolean buy,
+								   long quantity, long price) {
+			return price >= 0 ? RiskResult.ACCEPTED : RiskResult.INVALID_PRICE;
+		}
+	}
+
+	/**
+	 * Reference prices shared by the checks, updated by market data
+	 */
+	private final AtomicLongArray referencePrice;
+
+	/**
+	 * Limit price must be within bandBasisPoints of the reference price,
+	 * an order without limit price passes; without a reference price
+	 * there is no band and every order is rejected
+	 * @author Victor.Chan
+	 */
+	class PriceBandCheck extends RiskCheck {
+		private final long bandBasisPoints;
+
+		PriceBandCheck(long bandBasisPoints) { this.bandBasisPoints = bandBasisPoints; }
+
+		@Override
+		protected RiskResult check(int account, int instrument, boolean buy,
+								   long quantity, long price) {
+			long reference = referencePrice.get(instrument);
+			if (reference <= 0) { return RiskResult.NO_REFERENCE; }
+			return inBand(price, reference) ? RiskResult.ACCEPTED : RiskResult.PRICE_BAND;
+		}
+
+		/**
+		 * |price - reference| * 10000 <= reference * bandBasisPoints for
+		 * a positive reference, the right side computed in two parts as
+		 * floor(reference * bandBasisPoints / 10000): with the band at
+		 * most 10000 basis points nothing can overflow
+		 */
+		private boolean inBand(long price, long reference) {
+			if (price == 0) { return true; }
+			long band = reference / 10000 * bandBasisPoints +
+						reference % 10000 * bandBasisPoints / 10000;
+			return price > 0 && Math.abs(price - reference) <= band;
+		}
+
+		@Override
+		protected int checkBatch(OrderBatch batch) {
+			int rejected = 0;
+			final long[] price = batch.price;
+			final int[] instrument = batch.instrument;
+			final byte[] result = batch.result;
+			final byte reject = (byte)RiskResult.PRICE_BAND.ordinal();
+			final byte noReference = (byte)RiskResult.NO_REFERENCE.ordinal();
+			for (int i = 0; i < batch.size; i++) {
+				if (result[i] != ACCEPTED) { continue; }
+				long reference = referencePrice.get(instrument[i]);
+				if (reference <= 0) {
+					result[i] = noReference;
+					rejected++;
+				} else if (!inBand(price[i], reference)) {
+					result[i] = reject;
+					rejected++;
+				}
+			}
+			return rejected;
+		}
+	}
+
+	/**
+	 * quantity * price (reference price for an order without limit)
+	 * must not exceed the notional limit of the account. Compared as
+	 * quantity > limit / price, which is exact for positive integers
+	 * and cannot overflow; a negative price is rejected, an order
+	 * without limit on an instrument without reference price too.
+	 * @author Victor.Chan
+	 */
+	class MaxNotionalCheck extends RiskCheck {
+		private final long[] maxNotional;
+
+		MaxNotionalCheck(long[] maxNotional) { this.maxNotional = maxNotional; }
+
+		@Override
+		protected RiskResult check(int account, int instrument, boolean buy,
+								   long quantity, long price) {
+			long px = price != 0 ? price : referencePrice.get(instrument);
+			if (px == 0) { return RiskResult.NO_REFERENCE; }
+			return withinNotional(quantity, px, maxNotional[account]) ?
+					RiskResult.ACCEPTED : RiskResult.MAX_NOTIONAL;
+		}
+
+		private boolean withinNotional(long quantity, long px, long limit) {
+			return px > 0 && quantity <= limit / px;
+		}
+
+		@Override
+		protected int checkBatch(OrderBatch batch) {
+			int rejected = 0;
+			final long[] price = batch.price, quantity = batch.quantity;
+			final int[] account = batch.account, instrument = batch.instrument;
+			final byte[] result = batch.result;
+			final byte reject = (byte)RiskResult.MAX_NOTIONAL.ordinal();
+			final byte noReference = (byte)RiskResult.NO_REFERENCE.ordinal();
+			for (int i = 0; i < batch.size; i++) {
+				if (result[i] != ACCEPTED) { continue; }
+				long px = price[i] != 0 ? price[i] : referencePrice.get(instrument[i]);
+				if (px == 0) {
+					result[i] = noReference;
+					rejected++;
+				} else if (!withinNotional(quantity[i], px, maxNotional[account[i]])) {
+					result[i] = reject;
+					rejected++;
+				}
+			}
+			return rejected;
+		}
+	}
+
+	/**
+	 * Net position per account and instrument, reserved with a CAS on
+	 * accept. Counters are striped: each one sits on its own cache line
+	 * so accounts traded from different cores do not false-share.
+	 * @author Victor.Chan
+	 */
+	class PositionCheck extends RiskCheck {
+		private static final int STRIDE = 8;
+
+		private final long[] maxPosition;
+		private final AtomicLongArray position;
+
+		PositionCheck(long[] maxPosition) {
+			this.maxPosition = maxPosition;
+			this.position = new AtomicLongArray(maxPosition.length * instruments * STRIDE);
+		}
+
+		@Override
+		protected RiskResult check(int account, int instrument, boolean buy,
+								   long quantity, long price) {
+			int slot = (account * instruments + instrument) * STRIDE;
+			long delta = buy ? quantity : -quantity;
+			long limit = maxPosition[account];
+			while (true) {
+				long current = position.get(slot);
+				long next = current + delta;
+				if (Math.abs(next) > limit) { return RiskResult.POSITION_LIMIT; }
+				if (position.compareAndSet(slot, current, next)) { return RiskResult.ACCEPTED; }
+			}
+		}
+
+		void release(int account, int instrument, boolean buy, long quantity) {
+			position.addAndGet((account * instruments + instrument) * STRIDE,
+							   buy ? -quantity : quantity);
+		}
+
+		long getPosition(int account, int instrument) {
+			return position.get((account * instruments + instrument) * STRIDE);
+		}
+	}
+
+	private final int instruments;
+	private final RiskCheck head;
+	private final RiskCheck[] chain;
+	private final PositionCheck positionCheck;
+
+	/**
+	 * @param instruments      number of instruments, ids 0 .. instruments - 1
+	 * @param bandBasisPoints  price band around the reference price,
+	 *                         0 to 10000
+	 * @param maxNotional      notional limit per account (minor units)
+	 * @param maxPosition      net position limit per account and instrument
+	 */
+	public PreTradeRiskEngine(int instruments, long bandBasisPoints,
+							  long[] maxNotional, long[] maxPosition) {
+		if (bandBasisPoints < 0 || bandBasisPoints > 10000) {
+			throw new IllegalArgumentException("Band out of 0..10000 bp: " + bandBasisPoints);
+		}
+		this.instruments = instruments;
+		this.referencePrice = new AtomicLongArray(instruments);
+		QuantityCheck quantity = new QuantityCheck();
+		PriceCheck price = new PriceCheck();
+		PriceBandCheck priceBand = new PriceBandCheck(bandBasisPoints);
+		MaxNotionalCheck notional = new MaxNotionalCheck(maxNotional.clone());
+		positionCheck = new PositionCheck(maxPosition.clone());
+
+		quantity.setSuccessor(price);
+		price.setSuccessor(priceBand);
+		priceBand.setSuccessor(notional);
+		notional.setSuccessor(positionCheck);
+		head = quantity;
+		chain = compile(head);
+	}
+
+	private static RiskCheck[] compile(RiskCheck head) {
+		List<RiskCheck> checks = new ArrayList<RiskCheck>();
+		for (RiskCheck c = head; c != null; c = c.successor) { checks.add(c); }
+		return checks.toArray(new RiskCheck[checks.size()]);
+	}
+
+	public void setReferencePrice(int instrument, long price) {
+		referencePrice.set(instrument, price);
+	}
+
+	public long getPosition(int account, int instrument) {
+		return positionCheck.getPosition(account, instrument);
+	}
+
+	/**
+	 * Give back the position reserved by an accepted order
+	 * @param order
+	 */
+	public void release(Order order) {
+		release(order.account, order.instrument, order.buy, order.quantity);
+	}
+
+	/**
+	 * Give back the position reserved by an accepted order
+	 * @param account
+	 * @param instrument
+	 * @param buy
+	 * @param quantity quantity reserved and not filled
+	 */
+	public void release(int account, int instrument, boolean buy, long quantity) {
+		if (quantity <= 0) {
+			throw new IllegalArgumentException("Invalid quantity " + quantity);
+		}
+		positionCheck.release(account, instrument, buy, quantity);
+	}
+
+	/**
+	 * Give back the positions reserved by the accepted orders of a
+	 * checked batch
+	 * @param batch
+	 */
+	public void release(OrderBatch batch) {
+		for (int i = 0; i < batch.size; i++) {
+			if (batch.result[i] == ACCEPTED) {
+				positionCheck.release(batch.account[i], batch.instrument[i],
+									  batch.buy[i], batch.quantity[i]);
+			}
+		}
+	}
+
+	/**
+	 * Check one order, stops at the first reject
+	 * @param order
+	 * @return ACCEPTED or the reject reason
+	 */
+	public RiskResult check(Order order) {
+		return check(order.account, order.instrument, order.buy, order.quantity, order.price);
+	}
+
+	public RiskResult check(int account, int instrument, boolean buy, long quantity, long price) {
+		for (RiskCheck c : chain) {
+			RiskResult r = c.check(account, instrument, buy, quantity, price);
+			if (r != RiskResult.ACCEPTED) { return r; }
+		}
+		return RiskResult.ACCEPTED;
+	}
+
+	/**
+	 * Check a batch, one loop per check over the columns; when every
+	 * order of the batch is rejected the remaining checks are skipped
+	 * @param batch results are written into the batch
+	 * @return number of accepted orders
+	 */
+	public int check(OrderBatch batch) {
+		int accepted = batch.size;
+		for (int i = 0; i < batch.size; i++) { batch.result[i] = ACCEPTED; }
+		for (int c = 0; c < chain.length && accepted > 0; c++) {
+			accepted -= chain[c].checkBatch(batch);
+		}
+		return accepted;
+	}
+
+	/**
+	 * Behavior checks: every reject reason at its edge, the batch path
+	 * against the single order path, the position reservation under
+	 * contention
+	 * @throws IllegalStateException listing the failed checks
+	 */
+	static void verify() throws InterruptedException {
+		List<String> failures = new ArrayList<String>();
+
+		// instrument 2 has no reference price
+		PreTradeRiskEngine engine = new PreTradeRiskEngine(3, 500,
+				new long[] { 1000000, 1000000 }, new long[] { 1000, 1000 });
+		engine.setReferencePrice(0, 10000);
+		engine.setReferencePrice(1, 20000);
+		expect(failures, "zero quantity", RiskResult.INVALID_QUANTITY,
+			   engine.check(0, 0, true, 0, 10000));
+		expect(failures, "negative quantity", RiskResult.INVALID_QUANTITY,
+			   engine.check(0, 0, true, -1, 10000));
+		expect(failures, "negative price", RiskResult.INVALID_PRICE,
+			   engine.check(0, 0, true, 1, -1));
+		expect(failures, "minimum price", RiskResult.INVALID_PRICE,
+			   engine.check(0, 0, true, 1, Long.MIN_VALUE));
+		expect(failures, "market order, no reference", RiskResult.NO_REFERENCE,
+			   engine.check(0, 2, true, 1, 0));
+		expect(failures, "limit order, no reference", RiskResult.NO_REFERENCE,
+			   engine.check(0, 2, true, 1, 10000));
+		expect(failures, "band upper edge", RiskResult.ACCEPTED,
+			   engine.check(0, 0, true, 1, 10500));
+		expect(failures, "band lower edge", RiskResult.ACCEPTED,
+			   engine.check(0, 0, false, 1, 9500));
+		expect(failures, "above band", RiskResult.PRICE_BAND,
+			   engine.check(0, 0, true, 1, 10501));
+		expect(failures, "below band", RiskResult.PRICE_BAND,
+			   engine.check(0, 0, false, 1, 9499));
+		expect(failures, "maximum price", RiskResult.PRICE_BAND,
+			   engine.check(0, 0, true, 1, Long.MAX_VALUE));
+		expect(failures, "notional edge", RiskResult.ACCEPTED,
+			   engine.check(0, 0, true, 100, 10000));
+		expect(failures, "notional above", RiskResult.MAX_NOTIONAL,
+			   engine.check(0, 0, true, 101, 10000));
+		expect(failures, "notional overflow", RiskResult.MAX_NOTIONAL,
+			   engine.check(0, 0, true, Long.MAX_VALUE / 5000, 10000));
+		expect(failures, "market order notional", RiskResult.MAX_NOTIONAL,
+			   engine.check(0, 1, true, 51, 0));
+		for (int i = 0; i < 10; i++) {
+			engine.check(1, 0, true, 100, 10000);
+		}
+		expect(failures, "position at limit", 1000L, engine.getPosition(1, 0));
+		expect(failures, "position limit", RiskResult.POSITION_LIMIT,
+			   engine.check(1, 0, true, 1, 10000));
+		expect(failures, "position reduced", RiskResult.ACCEPTED,
+			   engine.check(1, 0, false, 100, 10000));
+		engine.release(1, 0, false, 100);
+		engine.release(1, 0, true, 1000);
+		expect(failures, "position released", 0L, engine.getPosition(1, 0));
+
+		// same orders through both paths of two identical engines
+		int accounts = 4, instruments = 8, orders = 4096;
+		long[] maxNotional = { 1000000, 5000000, 20000000, Long.MAX_VALUE };
+		long[] maxPosition = { 500, 2000, 10000, 100000 };
+		PreTradeRiskEngine single = new PreTradeRiskEngine(instruments, 300, maxNotional, maxPosition);
+		PreTradeRiskEngine batched = new PreTradeRiskEngine(instruments, 300, maxNotional, maxPosition);
+		for (int i = 0; i < instruments - 1; i++) {
+			single.setReferencePrice(i, 1000 + i * 1000);
+			batched.setReferencePrice(i, 1000 + i * 1000);
+		}
+		long[] quantities = { -1, 0, 1, 10, 100, 1000, Long.MAX_VALUE / 5000, Long.MAX_VALUE };
+		Random random = new Random(11);
+		OrderBatch batch = new OrderBatch(orders);
+		RiskResult[] expected = new RiskResult[orders];
+		for (int i = 0; i < orders; i++) {
+			int account = random.nextInt(accounts);
+			int instrument = random.nextInt(instruments);
+			boolean buy = random.nextBoolean();
+			long quantity = quantities[random.nextInt(quantities.length)];
+			long ref = 1000 + instrument * 1000;
+			long price;
+			switch (random.nextInt(6)) {
+			case 0:  price = 0; break;
+			case 1:  price = -ref; break;
+			case 2:  price = Long.MIN_VALUE + random.nextInt(10); break;
+			case 3:  price = ref * 2; break;
+			default: price = ref - ref * 3 / 100 + random.nextInt((int)(ref * 6 / 100) + 1);
+			}
+			batch.add(account, instrument, buy, quantity, price);
+			expected[i] = single.check(account, instrument, buy, quantity, price);
+		}
+		batched.check(batch);
+		int mismatches = 0;
+		for (int i = 0; i < orders; i++) {
+			if (batch.getResult(i) != expected[i]) { mismatches++; }
+		}
+		expect(failures, "batch results equal single results", 0, mismatches);
+		mismatches = 0;
+		for (int a = 0; a < accounts; a++) {
+			for (int i = 0; i < instruments; i++) {
+				if (single.getPosition(a, i) != batched.getPosition(a, i)) { mismatches++; }
+			}
+		}
+		expect(failures, "batch positions equal single positions", 0, mismatches);
+
+		// every thread buys and sells one lot at a time against a small
+		// position limit: the position must be the sum of the accepted
+		// lots and never beyond the limit
+		final int threads = 8, attempts = 200000;
+		final long limit = 4;
+		final PreTradeRiskEngine contended = new PreTradeRiskEngine(1, 500,
+				new long[] { Long.MAX_VALUE }, new long[] { limit });
+		contended.setReferencePrice(0, 10000);
+		final long[] net = new long[threads * 16];
+		final boolean[] beyond = new boolean[threads * 16];
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] traders = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			traders[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException ie) {
+						return;
+					}
+					for (int i = 0; i < attempts; i++) {
+						boolean buy = ((i + id) & 1) == 0;
+						if (contended.check(0, 0, buy, 1, 10000) == RiskResult.ACCEPTED) {
+							net[id * 16] += buy ? 1 : -1;
+						}
+						if (Math.abs(contended.getPosition(0, 0)) > limit) {
+							beyond[id * 16] = true;
+						}
+					}
+				}
+			});
+			traders[t].start();
+		}
+		start.countDown();
+		long total = 0;
+		boolean overLimit = false;
+		for (int t = 0; t < threads; t++) {
+			traders[t].join();
+			total += net[t * 16];
+			overLimit |= beyond[t * 16];
+		}
+		expect(failures, "contended position equals the accepted lots", total,
+			   contended.getPosition(0, 0));
+		expect(failures, "contended position within the limit", false, overLimit);
+
+		if (!failures.isEmpty()) {
+			throw new IllegalStateException(failures.size() + " risk checks failed: " + failures);
+		}
+		System.out.println("risk checks ok");
+	}
+
+	private static void expect(List<String> failures, String label,
+							   Object expected, Object actual) {
+		if (!expected.equals(actual)) {
+			failures.add(label + " expected " + expected + " got " + actual);
+		}
+	}
+
+	/**
+	 * Embedded testing module - behavior checks, orders from
+	 * OrderFactory, then batches of synthetic orders on every core
+	 * @param args verify | [threads] [seconds]
+	 */
+	public static void main(String[] args) throws Exception {
+		System.out.println("===== Behavior checks =====");
+		verify();
+		if (args.length > 0 && args[0].equals("verify")) { return; }
+
+		final int threads = args.length > 0 ? Integer.parseInt(args[0]) :
+								Runtime.getRuntime().availableProcessors();
+		final int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		final int accounts = 1000, instruments = 100;
+
+		long[] maxNotional = new long[accounts];
+		long[] maxPosition = new long[accounts];
+		for (int a = 0; a < accounts; a++) {
+			maxNotional[a] = 5000000L * 100;	// 5M in minor units
+			maxPosition[a] = 1000000;
+		}
+		final PreTradeRiskEngine engine =
+				new PreTradeRiskEngine(instruments + 1, 500, maxNotional, maxPosition);
+		for (int i = 0; i < instruments; i++) {
+			engine.setReferencePrice(i, 10000 + i * 100);
+		}
+
+		System.out.println("\n===== Orders from OrderFactory =====");
+		OrderFactory of = OrderFactory.getInstance();
+		of.registerOrderType("limit", new LimitOrder());
+		Order ok   = of.createOrder("limit").setTicket(1, 0, true, 100, 10050);
+		Order band = of.createOrder("limit").setTicket(1, 0, true, 100, 12000);
+		Order big  = of.createOrder("limit").setTicket(1, 0, true, 10000000, 10000);
+		Order wrap = of.createOrder("limit").setTicket(1, 0, true, Long.MAX_VALUE / 5000, 10000);
+		Order neg  = of.createOrder("limit").setTicket(1, 0, true, -500, 10000);
+		Order low  = of.createOrder("limit").setTicket(1, 0, true, 100, Long.MIN_VALUE + 1);
+		Order mkt  = of.createOrder("limit").setTicket(1, instruments, true, 100000000, 0);
+		System.out.println("in band    : " + engine.check(ok));
+		System.out.println("off band   : " + engine.check(band));
+		System.out.println("too big    : " + engine.check(big));
+		System.out.println("overflow   : " + engine.check(wrap));
+		System.out.println("negative   : " + engine.check(neg));
+		System.out.println("min price  : " + engine.check(low));
+		System.out.println("no ref mkt : " + engine.check(mkt));
+		System.out.println("position   : " + engine.getPosition(1, 0));
+		engine.release(ok);
+		System.out.println("released   : " + engine.getPosition(1, 0));
+
+		System.out.println("\n===== Batches on " + threads + " threads =====");
+		final long end = System.nanoTime() + seconds * 1000000000L;
+		final long[] checked = new long[threads * 16];
+		final long[] accepted = new long[threads * 16];
+		final CountDownLatch done = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					Random random = new Random(id);
+					OrderBatch batch = new OrderBatch(1024);
+					long n = 0, ok = 0;
+					while (System.nanoTime() < end) {
+						batch.clear();
+						for (int i = 0; i < 1024; i++) {
+							int instrument = random.nextInt(instruments);
+							long ref = 10000 + instrument * 100;
+							batch.add(random.nextInt(accounts), instrument, random.nextBoolean(),
+									  random.nextInt(50) == 0 ? 100000 : 1 + random.nextInt(1000),
+									  ref + random.nextInt((int)(ref * 12 / 100)) - ref * 6 / 100);
+						}
+						for (int r = 0; r < 16; r++) {
+							// released at once so that positions never saturate
+							ok += engine.check(batch);
+							engine.release(batch);
+							n += batch.size();
+						}
+					}
+					checked[id * 16] = n;
+					accepted[id * 16] = ok;
+					done.countDown();
+				}
+			}).start();
+		}
+		done.await();
+		long n = 0, ok2 = 0;
+		for (int t = 0; t < threads; t++) {
+			n += checked[t * 16];
+			ok2 += accepted[t * 16];
+		}
+		System.out.println(String.format("%.1fM orders checked and released per second, %.1f%% accepted",
+										 n / 1e6 / seconds, ok2 * 100.0 / n));
+	}
+}
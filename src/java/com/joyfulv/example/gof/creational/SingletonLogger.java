@@ -16,12 +16,15 @@
 package com.joyfulv.example.gof.creational;
 
 import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Date;
 import java.text.SimpleDateFormat;
 
+import com.joyfulv.example.gof.jfr.LogWriteEvent;
+
 /**
  * Demonstration of singleton object
  */
@@ -46,13 +49,15 @@ public class SingletonLogger implements Serializable {
 	
 	private static SingletonLogger logger;
 	private String           processName;
+	private final long       created = System.currentTimeMillis();
 	private FileOutputStream fileout;
-	private PrintStream      printstream;
+	private volatile PrintStream printstream;
 	
-	private String           logDir = System.getenv("LOG_DIR");
+	private String           logDir = System.getProperty("com.joyfulv.LOG_DIR", 
+													 System.getenv("LOG_DIR"));
 	private String           defaultLogLevel = 
 								System.getProperty("com.joyfulv.LOG_LEVEL");
-	private SimpleDateFormat sdf = new SimpleDateFormat(fileDate);
+	private SimpleDateFormat sdf;
 	
 	
 	/**
@@ -61,23 +66,49 @@ public class SingletonLogger implements Serializable {
 	 */
 	private SingletonLogger(String processName) {
 		this.processName = processName;
-		init();
 	}
 	
 	/**
-	 * Initialize settings
+	 * Initialize settings, the file is named after the creation time
+	 * of the logger but only created by the first write. The volatile
+	 * write of printstream comes last: it publishes sdf to the threads
+	 * taking the lock-free path of stream()
 	 */
 	private void init(){
+		SimpleDateFormat format = new SimpleDateFormat(fileDate);
 		String fileName = logDir + "/" + processName + 
-				          "_" + sdf.format(new Date());
+				          "_" + format.format(new Date(created));
+		PrintStream stream;
 		try {
-			fileout     = new FileOutputStream(fileName);
-			printstream = new PrintStream(fileout);
+			fileout = new FileOutputStream(fileName);
+			stream  = new PrintStream(fileout);
 		} catch (IOException ioe){
 			System.err.println(ioe.getMessage());
 			ioe.printStackTrace();
+			stream = System.err;
 		}
-		sdf.applyPattern(logDate);
+		format.applyPattern(logDate);
+		sdf = format;
+		printstream = stream;
+	}
+	
+	/**
+	 * Log file stream, initialized on the first call: a logger that
+	 * never writes neither touches the file system nor loads the date
+	 * formatting. Falls back to stderr if the file cannot be created.
+	 * @return stream to write to
+	 */
+	private PrintStream stream(){
+		PrintStream stream = printstream;
+		if (stream == null) {
+			synchronized (this) {
+				if (printstream == null) {
+					init();
+				}
+				stream = printstream;
+			}
+		}
+		return stream;
 	}
 	
 	/**
@@ -118,11 +149,21 @@ public class SingletonLogger implements Serializable {
 		if (defaultLogLevel!= null) {
 			if (defaultLogLevel.contains(logLevel.toString())){
 				
+				PrintStream stream = stream();
 				String logMsg = logLevel.toString() + " : ";
 				logMsg += "\""+sdf.format(new Date()) + "\" ";
 				logMsg += "["+className+":"+fnName+"]\n";
 				logMsg += msg + "\n";
-				printstream.println(logMsg);
+				LogWriteEvent event = new LogWriteEvent();
+				event.begin();
+				stream.println(logMsg);
+				event.end();
+				if (event.shouldCommit()) {
+					event.level = logLevel.toString();
+					event.className = className;
+					event.characters = logMsg.length();
+					event.commit();
+				}
 			}
 		}
 	}
@@ -164,8 +205,15 @@ public class SingletonLogger implements Serializable {
 	/**
 	 * Shutdown the Logging
 	 */
-	public void terminateLogging(){
-		printstream.close();
+	public synchronized void terminateLogging(){
+		if (printstream == null) {
+			// never written: nothing to close, and nothing to create later
+			sdf = new SimpleDateFormat(logDate);
+			printstream = new PrintStream(OutputStream.nullOutputStream());
+		}
+		if (printstream != System.err) {
+			printstream.close();
+		}
 	}
 	
 	/**
@@ -174,6 +222,8 @@ public class SingletonLogger implements Serializable {
 	 * -Dcom.joyfulv.LOG_LEVEL="DEBUG INFO"
 	 * System variable:
 	 * LOG_DIR "C:\Log"
+	 * or VM argument (takes precedence, used by the benchmarks):
+	 * -Dcom.joyfulv.LOG_DIR="C:\Log"
 	 * 
 	 * @param args
 	 */
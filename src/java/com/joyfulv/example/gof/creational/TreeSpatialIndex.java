@@ -0,0 +1,351 @@
+/*******************************************
+ * Name     : TreeSpatialIndex
+ * Function : Uniform grid spatial index for cloned Tree instances
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.creational;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.joyfulv.example.gof.creational.CloneManager.Tree;
+
+/**
+ * Uniform grid over a bounded world.
+ *
+ * Coordinates are kept in primitive arrays indexed by slot, each cell
+ * keeps a doubly linked list of slots so that a move is an O(1) unlink
+ * and relink. Locations outside the bounds are clamped to the border
+ * cells, so they are still found, only more slowly.
+ *
+ * A Tree attached to an index (Tree.attachIndex) registers every clone
+ * of itself and reports every setLocation back to the index. The index
+ * keeps its trees reachable until they are removed with
+ * Tree.detachIndex.
+ * @author Victor.Chan
+ */
+public class TreeSpatialIndex {
+
+	private static final int NONE = -1;
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final double minX;
+	private final double minY;
+	private final double cellSize;
+	private final int    cols;
+	private final int    rows;
+
+	/** head slot of each cell, NONE if empty */
+	private final int[] cellHead;
+
+	/** per slot data */
+	private double[] xs;
+	private double[] ys;
+	private int[]    cellOf;
+	private int[]    next;
+	private int[]    prev;
+	private Tree[]   trees;
+
+	private int size;
+	private int highWater;
+	private int freeHead = NONE;
+
+	public TreeSpatialIndex(double minX, double minY,
+							double maxX, double maxY, double cellSize) {
+		if (cellSize <= 0 || maxX <= minX || maxY <= minY) {
+			throw new IllegalArgumentException("Invalid grid bounds");
+		}
+		this.minX = minX;
+		this.minY = minY;
+		this.cellSize = cellSize;
+		this.cols = (int)Math.ceil((maxX - minX) / cellSize);
+		this.rows = (int)Math.ceil((maxY - minY) / cellSize);
+
+		cellHead = new int[cols * rows];
+		Arrays.fill(cellHead, NONE);
+
+		xs     = new double[INITIAL_CAPACITY];
+		ys     = new double[INITIAL_CAPACITY];
+		cellOf = new int[INITIAL_CAPACITY];
+		next   = new int[INITIAL_CAPACITY];
+		prev   = new int[INITIAL_CAPACITY];
+		trees  = new Tree[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Add a tree at its current location
+	 * @param tree
+	 * @return slot of the tree inside this index
+	 */
+	public synchronized int register(Tree tree) {
+		int slot;
+		if (freeHead != NONE) {
+			slot = freeHead;
+			freeHead = next[slot];
+		} else {
+			if (highWater == trees.length) { grow(); }
+			slot = highWater++;
+		}
+		trees[slot] = tree;
+		xs[slot] = value(tree.locX);
+		ys[slot] = value(tree.locY);
+		link(slot, cellIndex(xs[slot], ys[slot]));
+		size++;
+		return slot;
+	}
+
+	/**
+	 * Remove a tree from the index, the slot is recycled; only called
+	 * by Tree.detachIndex, which also forgets the slot
+	 * @param slot
+	 */
+	synchronized void unregister(int slot) {
+		if (trees[slot] == null) { return; }
+		unlink(slot);
+		trees[slot] = null;
+		next[slot] = freeHead;
+		freeHead = slot;
+		size--;
+	}
+
+	/**
+	 * Incremental update, only relink when the cell changes
+	 * @param slot
+	 * @param x
+	 * @param y
+	 */
+	public synchronized void move(int slot, double x, double y) {
+		xs[slot] = x;
+		ys[slot] = y;
+		int cell = cellIndex(x, y);
+		if (cell != cellOf[slot]) {
+			unlink(slot);
+			link(slot, cell);
+		}
+	}
+
+	public synchronized int size() { return size; }
+
+	/**
+	 * Range query on an axis aligned rectangle (inclusive)
+	 * @return trees inside the rectangle
+	 */
+	public synchronized List<Tree> rangeQuery(double x0, double y0,
+											  double x1, double y1) {
+		List<Tree> result = new ArrayList<Tree>();
+		int c0 = col(x0), c1 = col(x1);
+		int r0 = row(y0), r1 = row(y1);
+		for (int r = r0; r <= r1; r++) {
+			for (int c = c0; c <= c1; c++) {
+				for (int s = cellHead[r * cols + c]; s != NONE; s = next[s]) {
+					if (xs[s] >= x0 && xs[s] <= x1 &&
+						ys[s] >= y0 && ys[s] <= y1) {
+						result.add(trees[s]);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * k nearest trees to a point, closest first.
+	 * Search ring by ring around the cell of the point and stop once
+	 * the next ring cannot beat the current k-th distance.
+	 * @return up to k trees
+	 */
+	public synchronized List<Tree> nearest(double x, double y, int k) {
+		if (k <= 0 || size == 0) { return new ArrayList<Tree>(); }
+
+		// max-heap on distance, kept in primitive arrays
+		double[] heapDist = new double[k];
+		int[]    heapSlot = new int[k];
+		int      heapSize = 0;
+
+		int qc = col(x), qr = row(y);
+		int maxRing = Math.max(Math.max(qc, cols - 1 - qc),
+							   Math.max(qr, rows - 1 - qr));
+
+		for (int ring = 0; ring <= maxRing; ring++) {
+			if (heapSize == k) {
+				double bound = ringDistance(x, y, qc, qr, ring);
+				if (bound * bound > heapDist[0]) { break; }
+			}
+			int r0 = qr - ring, r1 = qr + ring;
+			int c0 = qc - ring, c1 = qc + ring;
+			for (int r = Math.max(r0, 0); r <= Math.min(r1, rows - 1); r++) {
+				boolean edgeRow = (r == r0 || r == r1);
+				int step = edgeRow ? 1 : c1 - c0;
+				for (int c = c0; c <= c1; c += step) {
+					if (c < 0 || c >= cols) { continue; }
+					for (int s = cellHead[r * cols + c]; s != NONE; s = next[s]) {
+						double dx = xs[s] - x, dy = ys[s] - y;
+						double d = dx * dx + dy * dy;
+						if (heapSize < k) {
+							heapSize = siftUp(heapDist, heapSlot, heapSize, d, s);
+						} else if (d < heapDist[0]) {
+							siftDown(heapDist, heapSlot, heapSize, d, s);
+						}
+					}
+				}
+			}
+		}
+
+		// drain the heap, farthest first, into a closest first list
+		Tree[] ordered = new Tree[heapSize];
+		for (int i = heapSize - 1; i >= 0; i--) {
+			ordered[i] = trees[heapSlot[0]];
+			double lastDist = heapDist[i];
+			int    lastSlot = heapSlot[i];
+			siftDown(heapDist, heapSlot, i, lastDist, lastSlot);
+		}
+		return new ArrayList<Tree>(Arrays.asList(ordered));
+	}
+
+	/*
+	 * ============ internal helpers =========================
+	 */
+
+	/**
+	 * null location counts as 0, as in register
+	 */
+	static double value(Double d) {
+		return d == null ? 0.0 : d.doubleValue();
+	}
+
+	private int col(double x) {
+		int c = (int)Math.floor((x - minX) / cellSize);
+		return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+	}
+
+	private int row(double y) {
+		int r = (int)Math.floor((y - minY) / cellSize);
+		return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+	}
+
+	private int cellIndex(double x, double y) {
+		return row(y) * cols + col(x);
+	}
+
+	/**
+	 * Lower bound of the distance from (x,y) to any cell on the given ring
+	 */
+	private double ringDistance(double x, double y, int qc, int qr, int ring) {
+		if (ring == 0) { return 0.0; }
+		double left   = x - (minX + (qc - ring + 1) * cellSize);
+		double right  = (minX + (qc + ring) * cellSize) - x;
+		double bottom = y - (minY + (qr - ring + 1) * cellSize);
+		double top    = (minY + (qr + ring) * cellSize) - y;
+		return Math.max(0.0, Math.min(Math.min(left, right),
+									  Math.min(bottom, top)));
+	}
+
+	private void link(int slot, int cell) {
+		int head = cellHead[cell];
+		next[slot] = head;
+		prev[slot] = NONE;
+		if (head != NONE) { prev[head] = slot; }
+		cellHead[cell] = slot;
+		cellOf[slot] = cell;
+	}
+
+	private void unlink(int slot) {
+		int p = prev[slot], n = next[slot];
+		if (p != NONE) { next[p] = n; } else { cellHead[cellOf[slot]] = n; }
+		if (n != NONE) { prev[n] = p; }
+	}
+
+	private void grow() {
+		int capacity = trees.length * 2;
+		xs     = Arrays.copyOf(xs, capacity);
+		ys     = Arrays.copyOf(ys, capacity);
+		cellOf = Arrays.copyOf(cellOf, capacity);
+		next   = Arrays.copyOf(next, capacity);
+		prev   = Arrays.copyOf(prev, capacity);
+		trees  = Arrays.copyOf(trees, capacity);
+	}
+
+	private static int siftUp(double[] dist, int[] slot, int size,
+							  double d, int s) {
+		int i = size;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (dist[parent] >= d) { break; }
+			dist[i] = dist[parent];
+			slot[i] = slot[parent];
+			i = parent;
+		}
+		dist[i] = d;
+		slot[i] = s;
+		return size + 1;
+	}
+
+	/**
+	 * Replace the root with (d, s) and restore the max-heap
+	 */
+	private static void siftDown(double[] dist, int[] slot, int size,
+								 double d, int s) {
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size) { break; }
+			if (child + 1 < size && dist[child + 1] > dist[child]) { child++; }
+			if (dist[child] <= d) { break; }
+			dist[i] = dist[child];
+			slot[i] = slot[child];
+			i = child;
+		}
+		if (size > 0) {
+			dist[i] = d;
+			slot[i] = s;
+		}
+	}
+
+	/**
+	 * Embedded testing module
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		TreeSpatialIndex index = new TreeSpatialIndex(0, 0, 10000, 10000, 50);
+		CloneManager cloneManager = CloneManager.getCloneManager();
+		Tree prototype = new Tree();
+		prototype.attachIndex(index);
+		cloneManager.registerCloneableType("Tree", prototype);
+
+		java.util.Random random = new java.util.Random(42);
+		int count = 1000000;
+		for (int i = 0; i < count; i++) {
+			Tree tree = (Tree)cloneManager.createClone("Tree");
+			tree.setLocation(random.nextDouble() * 10000,
+							 random.nextDouble() * 10000);
+		}
+		System.out.println("Indexed trees: " + index.size());
+
+		long start = System.nanoTime();
+		List<Tree> inRange = index.rangeQuery(5000, 5000, 5100, 5100);
+		long rangeNs = System.nanoTime() - start;
+		System.out.println("Range query found " + inRange.size() +
+						   " trees in " + (rangeNs / 1000) + "us");
+
+		start = System.nanoTime();
+		List<Tree> closest = index.nearest(2500, 7500, 5);
+		long knnNs = System.nanoTime() - start;
+		System.out.println("5 nearest to (2500, 7500) in " +
+						   (knnNs / 1000) + "us");
+		for (Tree tree : closest) {
+			System.out.println(tree.toString());
+		}
+	}
+}
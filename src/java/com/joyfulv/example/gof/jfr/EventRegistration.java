@@ -0,0 +1,78 @@
+/*******************************************
+ * Name     : EventRegistration
+ * Function : Deferred registration of the JoyfulVillage JFR events
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.jfr;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+
+/**
+ * The events are @Registered(false): the first use of a registered
+ * event class initializes the flight recorder metadata, some 300ms on
+ * a cold JVM, even when nothing is recorded. They are registered here
+ * only once a recorder exists:
+ *
+ * - at once when it is already up (-XX:StartFlightRecording, or a
+ *   Recording created before the first event)
+ * - otherwise by a listener, added on a daemon thread because adding
+ *   one costs ~25ms; a recording started later (jcmd JFR.start)
+ *   still picks the events up
+ *
+ * Each event class calls ensure() from its static initializer.
+ * @author Victor.Chan
+ */
+final class EventRegistration {
+
+	private static final List<Class<? extends jdk.jfr.Event>> EVENTS = 
+			Arrays.<Class<? extends jdk.jfr.Event>>asList(
+					OrderCreatedEvent.class, PrototypeClonedEvent.class,
+					HandlerStepEvent.class, LogWriteEvent.class);
+
+	static {
+		if (FlightRecorder.isInitialized()) {
+			registerAll();
+		} else {
+			Thread listen = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					FlightRecorder.addListener(new FlightRecorderListener() {
+						@Override
+						public void recorderInitialized(FlightRecorder recorder) {
+							registerAll();
+						}
+					});
+				}
+			}, "jfr-event-registration");
+			listen.setDaemon(true);
+			listen.start();
+		}
+	}
+
+	private EventRegistration() {}
+
+	/**
+	 * Triggers the class initialization above
+	 */
+	static void ensure() {}
+
+	private static void registerAll() {
+		for (Class<? extends jdk.jfr.Event> event : EVENTS) {
+			FlightRecorder.register(event);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/*******************************************
+ * Name     : HandlerStepEvent
+ * Function : Flight recorder event of a handler step of CoRAWSItemInfoReqSvr
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One handler of the item-info chain acting on a request
+ * @author Victor.Chan
+ */
+@Name("com.joyfulv.HandlerStep")
+@Label("Handler Step")
+@Category({ "JoyfulVillage", "Item Info" })
+@Description("Handler step of the item-info chain of responsibility")
+@Threshold("1 ms")
+@StackTrace(false)
+@Registered(false)
+public class HandlerStepEvent extends jdk.jfr.Event {
+
+	static { EventRegistration.ensure(); }
+
+	@Label("Handler")
+	public String handler;
+
+	@Label("ASIN")
+	public String ASIN;
+
+	@Label("Terminated")
+	@Description("The step ended the chain")
+	public boolean terminated;
+}
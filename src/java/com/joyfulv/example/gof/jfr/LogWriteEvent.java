@@ -0,0 +1,52 @@
+/*******************************************
+ * Name     : LogWriteEvent
+ * Function : Flight recorder event of a SingletonLogger write
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One message written by SingletonLogger, filtered messages are not
+ * recorded
+ * @author Victor.Chan
+ */
+@Name("com.joyfulv.LogWrite")
+@Label("Log Write")
+@Category({ "JoyfulVillage", "Logging" })
+@Description("Message written to the log file by SingletonLogger")
+@Threshold("1 ms")
+@StackTrace(false)
+@Registered(false)
+public class LogWriteEvent extends jdk.jfr.Event {
+
+	static { EventRegistration.ensure(); }
+
+	@Label("Level")
+	public String level;
+
+	@Label("Class")
+	public String className;
+
+	@Label("Characters")
+	@DataAmount(DataAmount.BYTES)
+	public long characters;
+}
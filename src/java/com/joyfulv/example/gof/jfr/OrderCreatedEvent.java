@@ -0,0 +1,49 @@
+/*******************************************
+ * Name     : OrderCreatedEvent
+ * Function : Flight recorder event of OrderFactory order creation
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One order created by OrderFactory: by prototype, from the generated
+ * table or by reflection.
+ * Only creations slower than the threshold are recorded.
+ * @author Victor.Chan
+ */
+@Name("com.joyfulv.OrderCreated")
+@Label("Order Created")
+@Category({ "JoyfulVillage", "Orders" })
+@Description("Order created by OrderFactory")
+@Threshold("100 us")
+@StackTrace(false)
+@Registered(false)
+public class OrderCreatedEvent extends jdk.jfr.Event {
+
+	static { EventRegistration.ensure(); }
+
+	@Label("Order Type")
+	public String orderType;
+
+	@Label("Reflective")
+	@Description("Created by createOrderFromReflection")
+	public boolean reflective;
+}
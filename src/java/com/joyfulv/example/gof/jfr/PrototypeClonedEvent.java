@@ -0,0 +1,47 @@
+/*******************************************
+ * Name     : PrototypeClonedEvent
+ * Function : Flight recorder event of CloneManager cloning
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One clone handed out by CloneManager.createClone
+ * @author Victor.Chan
+ */
+@Name("com.joyfulv.PrototypeCloned")
+@Label("Prototype Cloned")
+@Category({ "JoyfulVillage", "Prototypes" })
+@Description("Clone created by CloneManager")
+@Threshold("100 us")
+@StackTrace(false)
+@Registered(false)
+public class PrototypeClonedEvent extends jdk.jfr.Event {
+
+	static { EventRegistration.ensure(); }
+
+	@Label("Clone Type")
+	public String cloneType;
+
+	@Label("Pooled")
+	@Description("Taken from the pre-cloned pool")
+	public boolean pooled;
+}
@@ -0,0 +1,188 @@
+/*******************************************
+ * Name     : RecordingAnalyzer
+ * Function : Summary of the JoyfulVillage events of a flight recording
+ * Author   : Victor@JoyfulVillage
+ * Date     : October 19, 2026
+ *
+ * modification:
+ * Date  :
+ * Author:
+ * Change:
+ * Ref   :
+ *
+ *
+ */
+
+package com.joyfulv.example.gof.jfr;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import com.joyfulv.example.gof.behavioral.CoRAWSItemInfoReqSvr;
+import com.joyfulv.example.gof.creational.CloneManager;
+import com.joyfulv.example.gof.creational.OrderFactory;
+import com.joyfulv.example.gof.creational.SingletonLogger;
+
+/**
+ * Reads a recording and summarizes the com.joyfulv.* events per event
+ * type and key (order type, clone type, handler, log level): count,
+ * total, mean, p50, p99 and max duration.
+ *
+ * java ...RecordingAnalyzer app.jfr   - summarize a recording
+ * java ...RecordingAnalyzer           - record the embedded modules
+ *                                       with every threshold at 0
+ *                                       and summarize that
+ * @author Victor.Chan
+ */
+public class RecordingAnalyzer {
+
+	static final String EVENT_PREFIX = "com.joyfulv.";
+	static final String PROFILE      = "joyfulv.jfc";
+
+	/**
+	 * Recording with the bundled always-on profile
+	 * @return recording, not started
+	 */
+	public static Recording newRecording() throws IOException, ParseException {
+		try (Reader reader = new InputStreamReader(
+				RecordingAnalyzer.class.getResourceAsStream(PROFILE), StandardCharsets.UTF_8)) {
+			return new Recording(Configuration.create(reader));
+		}
+	}
+
+	/**
+	 * Durations of one event type and key
+	 */
+	static class Summary {
+		final String name;
+		long[] nanos = new long[64];
+		int    count;
+		long   total;
+
+		Summary(String name) { this.name = name; }
+
+		void add(long duration) {
+			if (count == nanos.length) { nanos = Arrays.copyOf(nanos, count * 2); }
+			nanos[count++] = duration;
+			total += duration;
+		}
+
+		long percentile(double p) {
+			return nanos[(int)Math.min(count - 1, Math.ceil(p / 100 * count) - 1)];
+		}
+
+		@Override
+		public String toString() {
+			Arrays.sort(nanos, 0, count);
+			return String.format("%-48s %9d %10.3f %9.2f %9.2f %9.2f %9.2f", name, count,
+								 total / 1e6, total / 1e3 / count, percentile(50) / 1e3,
+								 percentile(99) / 1e3, nanos[count - 1] / 1e3);
+		}
+	}
+
+	/**
+	 * @param recording .jfr file
+	 * @return summaries ordered by total time, largest first
+	 */
+	public static List<Summary> summarize(Path recording) throws IOException {
+		Map<String, Summary> summaries = new LinkedHashMap<String, Summary>();
+		try (RecordingFile file = new RecordingFile(recording)) {
+			while (file.hasMoreEvents()) {
+				RecordedEvent event = file.readEvent();
+				String type = event.getEventType().getName();
+				if (!type.startsWith(EVENT_PREFIX)) { continue; }
+				String name = event.getEventType().getLabel() + " " + key(event);
+				Summary summary = summaries.get(name);
+				if (summary == null) {
+					summary = new Summary(name);
+					summaries.put(name, summary);
+				}
+				summary.add(event.getDuration().toNanos());
+			}
+		}
+		List<Summary> sorted = new ArrayList<Summary>(summaries.values());
+		Collections.sort(sorted, new Comparator<Summary>() {
+			@Override
+			public int compare(Summary a, Summary b) { return Long.compare(b.total, a.total); }
+		});
+		return sorted;
+	}
+
+	private static String key(RecordedEvent event) {
+		if (event.hasField("orderType")) {
+			return event.getString("orderType") +
+				   (event.getBoolean("reflective") ? " (reflection)" : "");
+		}
+		if (event.hasField("cloneType")) {
+			return event.getString("cloneType") + (event.getBoolean("pooled") ? " (pooled)" : "");
+		}
+		if (event.hasField("handler")) { return event.getString("handler"); }
+		if (event.hasField("level"))   { return event.getString("level"); }
+		return "";
+	}
+
+	public static void print(List<Summary> summaries) {
+		System.out.println(String.format("%-48s %9s %10s %9s %9s %9s %9s", "event",
+				"count", "total ms", "mean us", "p50 us", "p99 us", "max us"));
+		for (Summary summary : summaries) {
+			System.out.println(summary);
+		}
+	}
+
+	/**
+	 * Embedded testing module
+	 * @param args [recording.jfr]
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0) {
+			print(summarize(Paths.get(args[0])));
+			return;
+		}
+
+		Path logDir = Files.createTempDirectory("jfr-demo");
+		if (System.getProperty("com.joyfulv.LOG_DIR") == null) {
+			System.setProperty("com.joyfulv.LOG_DIR", logDir.toString());
+		}
+		if (System.getProperty("com.joyfulv.LOG_LEVEL") == null) {
+			System.setProperty("com.joyfulv.LOG_LEVEL", "DEBUG INFO");
+		}
+
+		Path output = Files.createTempFile("joyfulv", ".jfr");
+		try (Recording recording = newRecording()) {
+			for (Class<? extends jdk.jfr.Event> type : Arrays.asList(
+					OrderCreatedEvent.class, PrototypeClonedEvent.class,
+					HandlerStepEvent.class, LogWriteEvent.class)) {
+				recording.enable(type).withThreshold(Duration.ZERO);
+			}
+			recording.start();
+			OrderFactory.main(args);
+			CloneManager.main(args);
+			CoRAWSItemInfoReqSvr.main(args);
+			SingletonLogger.main(args);
+			recording.stop();
+			recording.dump(output);
+		}
+
+		System.out.println("\n===== " + output + " =====");
+		print(summarize(output));
+	}
+}